@@ -0,0 +1,56 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "balanceSlotUnique", columnList = "accountId, slot", unique = true))
+public class BalanceSlot implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 3920481275630178452L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balanceSlot_seq")
+    @SequenceGenerator(name = "balanceSlot_seq", sequenceName = "BalanceSlot_seq", allocationSize = 50)
+    private Long id;
+
+    private Long accountId;
+
+    private Integer slot;
+
+    private BigDecimal balance;
+
+    public BalanceSlot(Long accountId, Integer slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+        this.balance = BigDecimal.ZERO;
+    }
+
+    @Override
+    public String toString() {
+        return accountId + "/" + slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceSlot that = (BalanceSlot) o;
+        return Objects.equals(accountId, that.accountId) && Objects.equals(slot, that.slot);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, slot);
+    }
+}
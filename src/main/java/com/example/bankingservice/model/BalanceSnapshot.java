@@ -0,0 +1,64 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "balanceSnapshotUnique", columnList = "accountId, snapshotDate", unique = true))
+public class BalanceSnapshot implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 7315046628203915734L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balanceSnapshot_seq")
+    @SequenceGenerator(name = "balanceSnapshot_seq", sequenceName = "BalanceSnapshot_seq", allocationSize = 50)
+    private Long id;
+
+    private Long accountId;
+
+    private LocalDate snapshotDate;
+
+    private BigDecimal balance;
+
+    private BigDecimal debitTotal;
+
+    private BigDecimal creditTotal;
+
+    public BalanceSnapshot(Long accountId, LocalDate snapshotDate, BigDecimal balance, BigDecimal debitTotal,
+                           BigDecimal creditTotal) {
+        this.accountId = accountId;
+        this.snapshotDate = snapshotDate;
+        this.balance = balance;
+        this.debitTotal = debitTotal;
+        this.creditTotal = creditTotal;
+    }
+
+    @Override
+    public String toString() {
+        return accountId + "@" + snapshotDate + " " + balance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceSnapshot that = (BalanceSnapshot) o;
+        return Objects.equals(accountId, that.accountId) && Objects.equals(snapshotDate, that.snapshotDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, snapshotDate);
+    }
+}
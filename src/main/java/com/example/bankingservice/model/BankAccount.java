@@ -6,10 +6,12 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -31,7 +33,8 @@ public class BankAccount implements Serializable {
     private final List<BankTransaction> toTransactions = new ArrayList<>();
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bankAccount_seq")
+    @SequenceGenerator(name = "bankAccount_seq", sequenceName = "BankAccount_seq", allocationSize = 50)
     private Long id;
 
     private String number;
@@ -40,6 +43,12 @@ public class BankAccount implements Serializable {
 
     private BigDecimal balance;
 
+    private LocalDateTime accruedAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version = 0L;
+
     @JsonBackReference(value = "user-account")
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "userId")
@@ -53,6 +62,13 @@ public class BankAccount implements Serializable {
         this.user = user;
     }
 
+    @PrePersist
+    private void initAccruedAt() {
+        if (accruedAt == null) {
+            accruedAt = LocalDateTime.now();
+        }
+    }
+
     @Override
     public String toString() {
         return number + " {" + user + "}";
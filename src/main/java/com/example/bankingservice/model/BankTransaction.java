@@ -16,23 +16,23 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Entity
 @Getter
 @Setter
+@Table(indexes = {
+        @Index(name = "bankTransactionReference", columnList = "transactionReference"),
+        @Index(name = "bankTransactionFromAccount", columnList = "fromAccountId, createdAt, id"),
+        @Index(name = "bankTransactionToAccount", columnList = "toAccountId, createdAt, id")})
 public class BankTransaction implements Serializable {
     @Serial
     private static final long serialVersionUID = 4105192078958211486L;
 
     private static final Logger logger = LoggerFactory.getLogger(BankTransaction.class);
 
-    @Transient
-    private final Lock balanceChangeLock;
-
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bankTransaction_seq")
+    @SequenceGenerator(name = "bankTransaction_seq", sequenceName = "BankTransaction_seq", allocationSize = 50)
     private Long id;
 
     private String transactionReference;
@@ -57,7 +57,6 @@ public class BankTransaction implements Serializable {
     private LocalDateTime createdAt;
 
     public BankTransaction() {
-        this.balanceChangeLock = new ReentrantLock();
     }
 
     public BankTransaction(String transactionReference, BankAccount fromAccount, BankAccount toAccount,
@@ -67,33 +66,22 @@ public class BankTransaction implements Serializable {
         this.toAccount = toAccount;
         this.amount = amount;
         this.status = status;
-        this.balanceChangeLock = new ReentrantLock();
     }
 
     public void deposit(BigDecimal amount) {
-        balanceChangeLock.lock();
-        try {
-            BigDecimal balance = toAccount.getBalance().add(amount);
-            toAccount.setBalance(balance);
-        } finally {
-            balanceChangeLock.unlock();
-        }
+        BigDecimal balance = toAccount.getBalance().add(amount);
+        toAccount.setBalance(balance);
     }
 
     public void withdraw(BigDecimal amount) {
-        balanceChangeLock.lock();
-        try {
-            BigDecimal balance = fromAccount.getBalance();
-            if (balance.compareTo(amount) >= 0) {
-                balance = fromAccount.getBalance().subtract(amount);
-                fromAccount.setBalance(balance);
-            } else {
-                logger.info("Try to withdraw from account / Попытка снятия со счета: {} {} ", toAccount, amount);
-                logger.info("Insufficient funds. Withdrawal cancelled. / Недостаточно средств. Операция отменена");
-                throw new AppRuntimeException();
-            }
-        } finally {
-            balanceChangeLock.unlock();
+        BigDecimal balance = fromAccount.getBalance();
+        if (balance.compareTo(amount) >= 0) {
+            balance = fromAccount.getBalance().subtract(amount);
+            fromAccount.setBalance(balance);
+        } else {
+            logger.info("Try to withdraw from account / Попытка снятия со счета: {} {} ", toAccount, amount);
+            logger.info("Insufficient funds. Withdrawal cancelled. / Недостаточно средств. Операция отменена");
+            throw new AppRuntimeException();
         }
     }
 
@@ -0,0 +1,5 @@
+package com.example.bankingservice.model;
+
+public enum BatchMode {
+    ALL_OR_NOTHING, BEST_EFFORT
+}
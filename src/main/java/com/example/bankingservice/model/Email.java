@@ -16,12 +16,14 @@ import java.util.Objects;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "emailContentUnique", columnList = "content", unique = true))
 public class Email implements Serializable {
     @Serial
     private static final long serialVersionUID = 1412272041958251188L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_seq")
+    @SequenceGenerator(name = "email_seq", sequenceName = "Email_seq", allocationSize = 50)
     private Long id;
 
     @JsonBackReference(value = "user-email")
@@ -0,0 +1,5 @@
+package com.example.bankingservice.model;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
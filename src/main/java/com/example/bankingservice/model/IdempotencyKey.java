@@ -0,0 +1,77 @@
+package com.example.bankingservice.model;
+
+import com.example.bankingservice.util.DateUtil;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idempotencyKeyUnique", columnList = "principalName, idempotencyKey", unique = true))
+public class IdempotencyKey implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 6017432981254409731L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String principalName;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    private Long fromAccountId;
+
+    private Long toAccountId;
+
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus status;
+
+    @CreationTimestamp
+    @DateTimeFormat(pattern = DateUtil.DATE_TIME_PATTERN)
+    private LocalDateTime createdAt;
+
+    public IdempotencyKey(String principalName, String idempotencyKey, Long fromAccountId, Long toAccountId,
+                          BigDecimal amount) {
+        this.principalName = principalName;
+        this.idempotencyKey = idempotencyKey;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.status = TransactionStatus.PROCESSING;
+    }
+
+    @Override
+    public String toString() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyKey that = (IdempotencyKey) o;
+        return Objects.equals(id, that.id) && Objects.equals(principalName, that.principalName)
+                && Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, principalName, idempotencyKey);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerCarryForward implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2604718395027461830L;
+
+    @Id
+    private Long accountId;
+
+    private BigDecimal debitTotal;
+
+    private BigDecimal creditTotal;
+
+    private LocalDateTime archivedBefore;
+
+    public LedgerCarryForward(Long accountId, BigDecimal debitTotal, BigDecimal creditTotal,
+                              LocalDateTime archivedBefore) {
+        this.accountId = accountId;
+        this.debitTotal = debitTotal;
+        this.creditTotal = creditTotal;
+        this.archivedBefore = archivedBefore;
+    }
+
+    public BigDecimal openingBalance(BigDecimal initialBalance) {
+        return initialBalance.add(creditTotal).subtract(debitTotal);
+    }
+
+    @Override
+    public String toString() {
+        return accountId + "<" + archivedBefore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LedgerCarryForward that = (LedgerCarryForward) o;
+        return Objects.equals(accountId, that.accountId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "ledgerDiscrepancyRun", columnList = "runId, accountId"))
+public class LedgerDiscrepancy implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2947150386175520943L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledgerDiscrepancy_seq")
+    @SequenceGenerator(name = "ledgerDiscrepancy_seq", sequenceName = "LedgerDiscrepancy_seq", allocationSize = 50)
+    private Long id;
+
+    private Long runId;
+
+    private Long accountId;
+
+    private BigDecimal balance;
+
+    private BigDecimal expectedBalance;
+
+    public LedgerDiscrepancy(Long runId, Long accountId, BigDecimal balance, BigDecimal expectedBalance) {
+        this.runId = runId;
+        this.accountId = accountId;
+        this.balance = balance;
+        this.expectedBalance = expectedBalance;
+    }
+
+    @Override
+    public String toString() {
+        return accountId + ": " + balance + " != " + expectedBalance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LedgerDiscrepancy that = (LedgerDiscrepancy) o;
+        return Objects.equals(runId, that.runId) && Objects.equals(accountId, that.accountId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(runId, accountId);
+    }
+}
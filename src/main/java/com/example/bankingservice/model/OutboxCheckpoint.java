@@ -0,0 +1,60 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxCheckpoint implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 8150263947718394025L;
+
+    @Id
+    private String sink;
+
+    private Long deliveredUpTo;
+
+    private Long deliveredCount;
+
+    private LocalDateTime updatedAt;
+
+    public OutboxCheckpoint(String sink) {
+        this.sink = sink;
+        this.deliveredUpTo = 0L;
+        this.deliveredCount = 0L;
+    }
+
+    public void advance(Long eventId, int delivered) {
+        deliveredUpTo = Math.max(deliveredUpTo, eventId);
+        deliveredCount += delivered;
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return sink + "@" + deliveredUpTo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxCheckpoint that = (OutboxCheckpoint) o;
+        return Objects.equals(sink, that.sink);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sink);
+    }
+}
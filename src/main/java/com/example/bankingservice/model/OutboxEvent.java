@@ -0,0 +1,72 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "outboxEventPending", columnList = "deliveredAt, id"))
+public class OutboxEvent implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 6403918275146630281L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outboxEvent_seq")
+    @SequenceGenerator(name = "outboxEvent_seq", sequenceName = "OutboxEvent_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    private Long transactionId;
+
+    private String transactionReference;
+
+    private Long fromAccountId;
+
+    private Long toAccountId;
+
+    private BigDecimal amount;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime deliveredAt;
+
+    public OutboxEvent(OutboxEventType eventType, BankTransaction transaction) {
+        this.eventType = eventType;
+        this.transactionId = transaction.getId();
+        this.transactionReference = transaction.getTransactionReference();
+        this.fromAccountId = transaction.getFromAccount() == null ? null : transaction.getFromAccount().getId();
+        this.toAccountId = transaction.getToAccount() == null ? null : transaction.getToAccount().getId();
+        this.amount = transaction.getAmount();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return id + " " + eventType + " " + transactionReference;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id) && Objects.equals(transactionId, that.transactionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, transactionId);
+    }
+}
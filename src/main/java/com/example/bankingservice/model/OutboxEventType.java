@@ -0,0 +1,12 @@
+package com.example.bankingservice.model;
+
+public enum OutboxEventType {
+    DEPOSIT, WITHDRAWAL, TRANSFER, INTEREST;
+
+    public static OutboxEventType of(BankTransaction transaction) {
+        if (transaction.getFromAccount() == null) {
+            return DEPOSIT;
+        }
+        return transaction.getToAccount() == null ? WITHDRAWAL : TRANSFER;
+    }
+}
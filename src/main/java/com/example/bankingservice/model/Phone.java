@@ -16,12 +16,14 @@ import java.util.Objects;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "phoneNumberUnique", columnList = "phoneNmr", unique = true))
 public class Phone implements Serializable {
     @Serial
     private static final long serialVersionUID = 1705122041958251102L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phone_seq")
+    @SequenceGenerator(name = "phone_seq", sequenceName = "Phone_seq", allocationSize = 50)
     private Long id;
 
     @JsonBackReference(value = "user-phone")
@@ -0,0 +1,62 @@
+package com.example.bankingservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "reconciliationRunFinished", columnList = "finishedAt"))
+public class ReconciliationRun implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5820374619283740519L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliationRun_seq")
+    @SequenceGenerator(name = "reconciliationRun_seq", sequenceName = "ReconciliationRun_seq", allocationSize = 50)
+    private Long id;
+
+    private boolean fullScan;
+
+    private LocalDateTime since;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private Long accountsChecked;
+
+    private Integer discrepancies;
+
+    public ReconciliationRun(boolean fullScan, LocalDateTime since, LocalDateTime startedAt) {
+        this.fullScan = fullScan;
+        this.since = since;
+        this.startedAt = startedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Run " + id + " (" + (fullScan ? "full" : "since " + since) + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReconciliationRun that = (ReconciliationRun) o;
+        return Objects.equals(id, that.id) && Objects.equals(startedAt, that.startedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, startedAt);
+    }
+}
@@ -27,7 +27,9 @@ import java.util.Objects;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "user_")
+@Table(name = "user_", indexes = {
+        @Index(name = "userUsername", columnList = "username, id"),
+        @Index(name = "userDateOfBirth", columnList = "dateOfBirth, id")})
 public class User implements Serializable {
     @Serial
     private static final long serialVersionUID = 1905122041950251207L;
@@ -47,7 +49,8 @@ public class User implements Serializable {
     private BankAccount account;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     private String username;
@@ -96,6 +99,6 @@ public class User implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(account, id, username, login, dateOfBirth);
+        return Objects.hash(id, username, login, dateOfBirth);
     }
 }
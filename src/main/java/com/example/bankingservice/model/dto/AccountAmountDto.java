@@ -0,0 +1,13 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class AccountAmountDto {
+    private final Long accountId;
+    private final BigDecimal amount;
+}
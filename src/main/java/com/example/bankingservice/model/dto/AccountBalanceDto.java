@@ -0,0 +1,17 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AccountBalanceDto {
+    private final Long accountId;
+    private final LocalDateTime at;
+    private final BigDecimal balance;
+    private final LocalDate snapshotDate;
+}
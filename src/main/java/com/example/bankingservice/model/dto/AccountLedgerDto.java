@@ -0,0 +1,14 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class AccountLedgerDto {
+    private final Long accountId;
+    private final BigDecimal initialBalance;
+    private final BigDecimal balance;
+}
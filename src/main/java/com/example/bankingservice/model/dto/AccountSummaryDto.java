@@ -0,0 +1,14 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class AccountSummaryDto {
+    private final Long id;
+    private final String number;
+    private final BigDecimal balance;
+}
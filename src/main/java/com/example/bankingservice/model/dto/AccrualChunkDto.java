@@ -0,0 +1,15 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AccrualChunkDto {
+    private final Long firstAccountId;
+    private final Long lastAccountId;
+    private final int accounts;
+    private final int charged;
+    private final long elapsedMillis;
+    private final boolean failed;
+}
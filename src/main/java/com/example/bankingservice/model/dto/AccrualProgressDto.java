@@ -0,0 +1,23 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class AccrualProgressDto {
+    private final long runId;
+    private final boolean running;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final int chunksPlanned;
+    private final int chunksCompleted;
+    private final int chunksFailed;
+    private final long accountsProcessed;
+    private final long accountsCharged;
+    private final Long checkpointAccountId;
+    private final List<AccrualChunkDto> lastChunks;
+}
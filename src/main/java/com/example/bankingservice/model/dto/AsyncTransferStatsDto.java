@@ -0,0 +1,16 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AsyncTransferStatsDto {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final int activeWorkers;
+    private final long submitted;
+    private final long rejected;
+    private final long succeeded;
+    private final long failed;
+}
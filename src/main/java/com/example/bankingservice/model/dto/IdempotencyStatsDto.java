@@ -0,0 +1,17 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IdempotencyStatsDto {
+    private final int cachedKeys;
+    private final int cacheCapacity;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final double cacheHitRate;
+    private final long databaseHits;
+    private final long expired;
+    private final long evicted;
+}
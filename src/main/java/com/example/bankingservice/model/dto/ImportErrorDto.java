@@ -0,0 +1,12 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportErrorDto {
+    private final long row;
+    private final String login;
+    private final String message;
+}
@@ -0,0 +1,23 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportProgressDto {
+    private final long jobId;
+    private final boolean running;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsFailed;
+    private final long chunksCommitted;
+    private final double rowsPerSecond;
+    private final String failure;
+    private final List<ImportErrorDto> errors;
+}
@@ -0,0 +1,15 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class JournalEntryDto {
+    private final String transactionReference;
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final BigDecimal amount;
+}
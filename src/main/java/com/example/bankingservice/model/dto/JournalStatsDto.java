@@ -0,0 +1,17 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JournalStatsDto {
+    private final boolean enabled;
+    private final long capacityRecords;
+    private final long writtenRecords;
+    private final long unflushedRecords;
+    private final long syncs;
+    private final long averageAckMicros;
+    private final long flushLagMillis;
+    private final int cachedAccounts;
+}
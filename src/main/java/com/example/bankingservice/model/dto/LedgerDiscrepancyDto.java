@@ -0,0 +1,15 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class LedgerDiscrepancyDto {
+    private final Long accountId;
+    private final BigDecimal balance;
+    private final BigDecimal expectedBalance;
+    private final BigDecimal difference;
+}
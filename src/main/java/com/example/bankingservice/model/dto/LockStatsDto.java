@@ -0,0 +1,18 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class LockStatsDto {
+    private final int stripes;
+    private final long acquisitions;
+    private final long contended;
+    private final long totalWaitMillis;
+    private final long averageWaitMicros;
+    private final long maxWaitMicros;
+    private final Map<Integer, Long> hottestStripes;
+}
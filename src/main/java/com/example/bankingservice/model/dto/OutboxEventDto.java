@@ -0,0 +1,21 @@
+package com.example.bankingservice.model.dto;
+
+import com.example.bankingservice.model.OutboxEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class OutboxEventDto {
+    private final Long id;
+    private final OutboxEventType eventType;
+    private final Long transactionId;
+    private final String transactionReference;
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final BigDecimal amount;
+    private final LocalDateTime createdAt;
+}
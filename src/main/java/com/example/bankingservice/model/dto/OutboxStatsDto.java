@@ -0,0 +1,21 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class OutboxStatsDto {
+    private final String sink;
+    private final long pending;
+    private final LocalDateTime oldestPendingAt;
+    private final long lagMillis;
+    private final Long lastEventId;
+    private final Long deliveredUpTo;
+    private final long delivered;
+    private final long failures;
+    private final int lastBatchSize;
+    private final long lastBatchMillis;
+}
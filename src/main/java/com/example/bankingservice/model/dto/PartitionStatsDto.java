@@ -0,0 +1,14 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PartitionStatsDto {
+    private final int partition;
+    private final int queueDepth;
+    private final long processed;
+    private final long averageLatencyMicros;
+    private final long maxLatencyMicros;
+}
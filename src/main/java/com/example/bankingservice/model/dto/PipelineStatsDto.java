@@ -0,0 +1,19 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class PipelineStatsDto {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long batches;
+    private final long transfers;
+    private final double averageBatchSize;
+    private final int maxBatchSize;
+    private final long averageCommitMicros;
+    private final Map<String, Long> batchSizeHistogram;
+}
@@ -0,0 +1,19 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReconciliationReportDto {
+    private final long runId;
+    private final boolean fullScan;
+    private final LocalDateTime since;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final long accountsChecked;
+    private final List<LedgerDiscrepancyDto> discrepancies;
+}
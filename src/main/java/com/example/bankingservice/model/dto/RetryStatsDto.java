@@ -0,0 +1,25 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RetryStatsDto {
+    private final long transfers;
+    private final long conflicts;
+    private final long retries;
+    private final long giveUps;
+    private final List<AccountRetryStatsDto> hottestAccounts;
+
+    @Getter
+    @AllArgsConstructor
+    public static class AccountRetryStatsDto {
+        private final Long accountId;
+        private final long conflicts;
+        private final long retries;
+        private final long giveUps;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankingservice.model.dto;
+
+import com.example.bankingservice.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TransactionDto {
+    private final Long id;
+    private final String transactionReference;
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final BigDecimal amount;
+    private final TransactionStatus status;
+    private final LocalDateTime createdAt;
+}
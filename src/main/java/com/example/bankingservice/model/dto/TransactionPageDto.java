@@ -0,0 +1,15 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionPageDto {
+    private final List<TransactionDto> transactions;
+    private final String nextCursor;
+    private final LocalDateTime archivedBefore;
+}
@@ -0,0 +1,18 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferEntryDto {
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+}
@@ -0,0 +1,33 @@
+package com.example.bankingservice.model.dto;
+
+import com.example.bankingservice.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class TransferResultDto {
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final BigDecimal amount;
+    private final TransactionStatus status;
+    private final String transactionReference;
+    private final String message;
+
+    public static TransferResultDto success(TransferEntryDto entry, String transactionReference) {
+        return new TransferResultDto(entry.getFromAccountId(), entry.getToAccountId(), entry.getAmount(),
+                TransactionStatus.SUCCESS, transactionReference, null);
+    }
+
+    public static TransferResultDto failure(TransferEntryDto entry, String message) {
+        return new TransferResultDto(entry.getFromAccountId(), entry.getToAccountId(), entry.getAmount(),
+                TransactionStatus.FAILED, null, message);
+    }
+
+    public static TransferResultDto rolledBack(TransferResultDto result) {
+        return new TransferResultDto(result.getFromAccountId(), result.getToAccountId(), result.getAmount(),
+                TransactionStatus.FAILED, null, "Batch rolled back / Пакет отменен");
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UniquenessFilterStatsDto {
+    private final boolean ready;
+    private final long bits;
+    private final int hashes;
+    private final long entries;
+    private final double fillRatio;
+    private final long lookups;
+    private final long definitelyAbsent;
+    private final long falsePositives;
+    private final double falsePositiveRate;
+}
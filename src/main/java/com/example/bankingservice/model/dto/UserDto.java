@@ -0,0 +1,19 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserDto {
+    private final Long id;
+    private final String username;
+    private final String login;
+    private final LocalDate dateOfBirth;
+    private final List<String> phones;
+    private final List<String> emails;
+    private final AccountSummaryDto account;
+}
@@ -0,0 +1,11 @@
+package com.example.bankingservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserValueDto {
+    private final Long userId;
+    private final String value;
+}
@@ -0,0 +1,40 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.BalanceSlot;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface BalanceSlotRepository extends JpaRepository<BalanceSlot, Long> {
+    @Query(value = "SELECT s.slot FROM BalanceSlot s WHERE s.accountId = :accountId")
+    List<Integer> findSlotsByAccountId(@Param("accountId") Long accountId);
+
+    @Query(value = "SELECT COALESCE(SUM(s.balance), 0) FROM BalanceSlot s WHERE s.accountId = :accountId")
+    BigDecimal sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(s.accountId, SUM(s.balance)) " +
+            "FROM BalanceSlot s WHERE s.accountId IN :accountIds GROUP BY s.accountId")
+    List<AccountAmountDto> findTotalsByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT s FROM BalanceSlot s WHERE s.accountId = :accountId ORDER BY s.slot")
+    List<BalanceSlot> findAllForUpdateByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "UPDATE BalanceSlot s SET s.balance = s.balance + :amount " +
+            "WHERE s.accountId = :accountId AND s.slot = :slot")
+    int deposit(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE BalanceSlot s SET s.balance = s.balance - :amount " +
+            "WHERE s.accountId = :accountId AND s.slot = :slot AND s.balance >= :amount")
+    int withdraw(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+}
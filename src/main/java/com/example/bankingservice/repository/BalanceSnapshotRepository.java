@@ -0,0 +1,27 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    @Query(value = "SELECT MAX(s.snapshotDate) FROM BalanceSnapshot s")
+    Optional<LocalDate> findLastSnapshotDate();
+
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderBySnapshotDateAsc(Long accountId);
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(Long accountId,
+                                                                                                 LocalDate date);
+
+    @Query(value = "SELECT s FROM BalanceSnapshot s WHERE s.accountId IN :accountIds AND s.snapshotDate = " +
+            "(SELECT MAX(p.snapshotDate) FROM BalanceSnapshot p WHERE p.accountId = s.accountId " +
+            "AND p.snapshotDate < :date)")
+    List<BalanceSnapshot> findLatestBefore(@Param("accountIds") Collection<Long> accountIds,
+                                           @Param("date") LocalDate date);
+}
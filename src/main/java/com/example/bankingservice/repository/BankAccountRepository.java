@@ -1,12 +1,75 @@
 package com.example.bankingservice.repository;
 
 import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import com.example.bankingservice.model.dto.AccountLedgerDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
     Optional<BankAccount> findByNumber(String accountNumber);
+
+    @Query(value = "SELECT a.balance FROM BankAccount a WHERE a.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") Long id);
+
+    @Query(value = "SELECT a.id FROM BankAccount a WHERE a.id > :lastId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(a.id, a.initialBalance) " +
+            "FROM BankAccount a WHERE a.id > :lastId " +
+            "AND NOT EXISTS (SELECT s.id FROM BalanceSnapshot s WHERE s.accountId = a.id) ORDER BY a.id")
+    List<AccountAmountDto> findWithoutSnapshotAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountLedgerDto(a.id, a.initialBalance, a.balance) " +
+            "FROM BankAccount a WHERE a.id IN :ids")
+    List<AccountLedgerDto> findLedgerByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT a.id FROM BankAccount a WHERE a.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT a.id FROM BankAccount a WHERE a.id BETWEEN :fromId AND :toId ORDER BY a.id")
+    List<Long> lockIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT a.id FROM BankAccount a WHERE a.id IN :ids ORDER BY a.id")
+    List<Long> lockIdsIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT a FROM BankAccount a JOIN FETCH a.user WHERE a.id IN :ids ORDER BY a.id")
+    List<BankAccount> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE BankAccount a SET a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.balance >= :amount")
+    int withdraw(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE BankAccount a SET a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "WHERE a.id = :id")
+    int deposit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE BankAccount a SET a.balance = a.balance + a.balance * :rate, a.version = a.version + 1, " +
+            "a.accruedAt = :runStartedAt " +
+            "WHERE a.id BETWEEN :fromId AND :toId AND a.balance > 0 " +
+            "AND a.balance + a.balance * :rate <= a.initialBalance * :limit " +
+            "AND (a.accruedAt IS NULL OR a.accruedAt < :runStartedAt)")
+    int accrueInterest(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                       @Param("rate") BigDecimal rate, @Param("limit") BigDecimal limit,
+                       @Param("runStartedAt") LocalDateTime runStartedAt);
 }
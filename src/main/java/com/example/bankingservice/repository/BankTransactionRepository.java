@@ -1,10 +1,122 @@
 package com.example.bankingservice.repository;
 
 import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import com.example.bankingservice.model.dto.TransactionDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BankTransactionRepository extends JpaRepository<BankTransaction, Long> {
+public interface BankTransactionRepository extends JpaRepository<BankTransaction, Long>,
+        BankTransactionRepositoryCustom {
     Optional<BankTransaction> findByTransactionReference(String transactionReference);
+
+    Optional<BankTransaction> findByTransactionReferenceAndCreatedAtBetween(String transactionReference,
+                                                                            LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "UPDATE BankTransaction t SET t.status = :status WHERE t.id = :id AND t.createdAt = :createdAt " +
+            "AND t.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("createdAt") LocalDateTime createdAt,
+                     @Param("expected") TransactionStatus expected, @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT t.status FROM BankTransaction t WHERE t.id = :id AND t.createdAt = :createdAt")
+    TransactionStatus findStatus(@Param("id") Long id, @Param("createdAt") LocalDateTime createdAt);
+
+    @Query(value = "SELECT t.transactionReference FROM BankTransaction t WHERE t.status = :status " +
+            "AND t.fromAccount.id IS NOT NULL AND t.toAccount.id IS NOT NULL ORDER BY t.id")
+    List<String> findTransferReferencesByStatus(@Param("status") TransactionStatus status, Limit limit);
+
+    boolean existsByStatusInAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(Collection<TransactionStatus> statuses,
+                                                                             LocalDateTime from, LocalDateTime to);
+
+    @Query(value = "SELECT t.transactionReference FROM BankTransaction t WHERE t.status = :status " +
+            "AND t.fromAccount.id IS NOT NULL AND t.toAccount.id IS NULL ORDER BY t.id")
+    List<String> findDebitReferencesByStatus(@Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT t.transactionReference FROM BankTransaction t WHERE t.transactionReference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.TransactionDto(t.id, t.transactionReference, " +
+            "t.fromAccount.id, t.toAccount.id, t.amount, t.status, t.createdAt) FROM BankTransaction t " +
+            "WHERE t.fromAccount.id = :accountId AND t.createdAt >= :from " +
+            "AND (t.createdAt < :beforeAt OR t.createdAt = :beforeAt AND t.id < :beforeId) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionDto> findOutgoing(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                      @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId,
+                                      Limit limit);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.TransactionDto(t.id, t.transactionReference, " +
+            "t.fromAccount.id, t.toAccount.id, t.amount, t.status, t.createdAt) FROM BankTransaction t " +
+            "WHERE t.toAccount.id = :accountId AND t.createdAt >= :from " +
+            "AND (t.createdAt < :beforeAt OR t.createdAt = :beforeAt AND t.id < :beforeId) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionDto> findIncoming(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                      @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId,
+                                      Limit limit);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.fromAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.fromAccount.id IS NOT NULL AND t.status = :status " +
+            "AND t.createdAt >= :from AND t.createdAt < :to GROUP BY t.fromAccount.id")
+    List<AccountAmountDto> findDebitTotals(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                           @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.toAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.toAccount.id IS NOT NULL AND t.status = :status " +
+            "AND t.createdAt >= :from AND t.createdAt < :to GROUP BY t.toAccount.id")
+    List<AccountAmountDto> findCreditTotals(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                            @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.fromAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.fromAccount.id IN :accountIds AND t.status = :status " +
+            "AND t.createdAt < :to GROUP BY t.fromAccount.id")
+    List<AccountAmountDto> findDebitTotalsBefore(@Param("accountIds") Collection<Long> accountIds,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.toAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.toAccount.id IN :accountIds AND t.status = :status " +
+            "AND t.createdAt < :to GROUP BY t.toAccount.id")
+    List<AccountAmountDto> findCreditTotalsBefore(@Param("accountIds") Collection<Long> accountIds,
+                                                  @Param("to") LocalDateTime to,
+                                                  @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT COALESCE(SUM(t.amount), 0) FROM BankTransaction t WHERE t.fromAccount.id = :accountId " +
+            "AND t.status = :status AND t.createdAt >= :from AND t.createdAt < :to")
+    BigDecimal sumDebits(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to, @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT COALESCE(SUM(t.amount), 0) FROM BankTransaction t WHERE t.toAccount.id = :accountId " +
+            "AND t.status = :status AND t.createdAt >= :from AND t.createdAt < :to")
+    BigDecimal sumCredits(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to, @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.fromAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.fromAccount.id IN :accountIds AND t.status = :status " +
+            "GROUP BY t.fromAccount.id")
+    List<AccountAmountDto> findDebitTotalsByAccountIdIn(@Param("accountIds") Collection<Long> accountIds,
+                                                        @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.AccountAmountDto(t.toAccount.id, SUM(t.amount)) " +
+            "FROM BankTransaction t WHERE t.toAccount.id IN :accountIds AND t.status = :status " +
+            "GROUP BY t.toAccount.id")
+    List<AccountAmountDto> findCreditTotalsByAccountIdIn(@Param("accountIds") Collection<Long> accountIds,
+                                                         @Param("status") TransactionStatus status);
+
+    @Query(value = "SELECT DISTINCT t.fromAccount.id FROM BankTransaction t WHERE t.fromAccount.id IS NOT NULL " +
+            "AND t.createdAt >= :since")
+    List<Long> findDebitAccountIdsSince(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT DISTINCT t.toAccount.id FROM BankTransaction t WHERE t.toAccount.id IS NOT NULL " +
+            "AND t.createdAt >= :since")
+    List<Long> findCreditAccountIdsSince(@Param("since") LocalDateTime since);
 }
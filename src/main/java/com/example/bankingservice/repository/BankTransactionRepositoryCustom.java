@@ -0,0 +1,19 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransactionDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface BankTransactionRepositoryCustom {
+    int insertInterestTransactions(Long fromId, Long toId, BigDecimal rate, BigDecimal limit,
+                                   LocalDateTime runStartedAt, LocalDateTime createdAt, String reference,
+                                   TransactionStatus status);
+
+    int insertInterestOutboxEvents(Long fromId, Long toId, LocalDateTime createdAt, String reference);
+
+    Stream<TransactionDto> streamTransactions(LocalDateTime from, LocalDateTime to, TransactionStatus status,
+                                              int fetchSize);
+}
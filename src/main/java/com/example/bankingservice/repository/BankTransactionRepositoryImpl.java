@@ -0,0 +1,94 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.OutboxEventType;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class BankTransactionRepositoryImpl implements BankTransactionRepositoryCustom {
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("[0-9A-Za-z-]{1,64}");
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Values are inlined as literals: Hibernate cannot bind parameters in INSERT ... SELECT
+    // when ids come from a pooled sequence, which it handles through a temporary table.
+    @Override
+    public int insertInterestTransactions(Long fromId, Long toId, BigDecimal rate, BigDecimal limit,
+                                          LocalDateTime runStartedAt, LocalDateTime createdAt, String reference,
+                                          TransactionStatus status) {
+        if (!REFERENCE_PATTERN.matcher(reference).matches()) {
+            throw new AppRuntimeException("Invalid transaction reference / Некорректная ссылка транзакции: " + reference);
+        }
+        String query = "INSERT INTO BankTransaction (transactionReference, toAccount, amount, status, createdAt) " +
+                "SELECT CONCAT('" + reference + "-', CAST(a.id AS String)), a, a.balance * " + rate.toPlainString() +
+                ", " + TransactionStatus.class.getName() + "." + status.name() + ", " + timestamp(createdAt) + " " +
+                "FROM BankAccount a WHERE a.id BETWEEN " + fromId.longValue() + " AND " + toId.longValue() +
+                " AND a.balance > 0 AND a.balance + a.balance * " + rate.toPlainString() +
+                " <= a.initialBalance * " + limit.toPlainString() +
+                " AND (a.accruedAt IS NULL OR a.accruedAt < " + timestamp(runStartedAt) + ")";
+        return entityManager.createQuery(query).executeUpdate();
+    }
+
+    // the rows are matched on the createdAt the insert gave them, so the scan stays within that moment of each
+    // account's incoming history and within one monthly partition
+    @Override
+    public int insertInterestOutboxEvents(Long fromId, Long toId, LocalDateTime createdAt, String reference) {
+        if (!REFERENCE_PATTERN.matcher(reference).matches()) {
+            throw new AppRuntimeException("Invalid transaction reference / Некорректная ссылка транзакции: " + reference);
+        }
+        String query = "INSERT INTO OutboxEvent (eventType, transactionId, transactionReference, toAccountId, amount, " +
+                "createdAt) SELECT " + OutboxEventType.class.getName() + "." + OutboxEventType.INTEREST.name() +
+                ", t.id, t.transactionReference, t.toAccount.id, t.amount, LOCAL_DATETIME FROM BankTransaction t " +
+                "WHERE t.toAccount.id BETWEEN " + fromId.longValue() + " AND " + toId.longValue() +
+                " AND t.createdAt = " + timestamp(createdAt) +
+                " AND t.transactionReference LIKE '" + reference + "-%'";
+        return entityManager.createQuery(query).executeUpdate();
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return "{ts '" + TIMESTAMP_FORMATTER.format(value) + "'}";
+    }
+
+    @Override
+    public Stream<TransactionDto> streamTransactions(LocalDateTime from, LocalDateTime to, TransactionStatus status,
+                                                     int fetchSize) {
+        StringBuilder query = new StringBuilder("SELECT new com.example.bankingservice.model.dto.TransactionDto(" +
+                "t.id, t.transactionReference, t.fromAccount.id, t.toAccount.id, t.amount, t.status, t.createdAt) " +
+                "FROM BankTransaction t WHERE 1 = 1");
+        if (from != null) {
+            query.append(" AND t.createdAt >= :from");
+        }
+        if (to != null) {
+            query.append(" AND t.createdAt < :to");
+        }
+        if (status != null) {
+            query.append(" AND t.status = :status");
+        }
+        query.append(" ORDER BY t.id");
+        TypedQuery<TransactionDto> typed = entityManager.createQuery(query.toString(), TransactionDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (from != null) {
+            typed.setParameter("from", from);
+        }
+        if (to != null) {
+            typed.setParameter("to", to);
+        }
+        if (status != null) {
+            typed.setParameter("status", status);
+        }
+        return typed.getResultStream();
+    }
+}
@@ -1,10 +1,27 @@
 package com.example.bankingservice.repository;
 
 import com.example.bankingservice.model.Email;
+import com.example.bankingservice.model.dto.UserValueDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface EmailRepository extends JpaRepository<Email, Long> {
     Email findEmailByContent(String content);
+
+    @Query(value = "SELECT e.content FROM Email e WHERE e.content IN :contents")
+    List<String> findExistingContents(@Param("contents") Collection<String> contents);
+
+    @Query(value = "SELECT e.content FROM Email e WHERE e.content > :after ORDER BY e.content")
+    List<String> findContentsAfter(@Param("after") String after, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.UserValueDto(e.user.id, e.content) " +
+            "FROM Email e WHERE e.user.id IN :userIds ORDER BY e.id")
+    List<UserValueDto> findContentsByUserIds(@Param("userIds") Collection<Long> userIds);
 }
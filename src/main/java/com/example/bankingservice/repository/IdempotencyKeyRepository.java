@@ -0,0 +1,28 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.IdempotencyKey;
+import com.example.bankingservice.model.TransactionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByPrincipalNameAndIdempotencyKey(String principalName, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE IdempotencyKey k SET k.status = :status WHERE k.principalName = :principalName " +
+            "AND k.idempotencyKey = :idempotencyKey")
+    int updateStatus(@Param("principalName") String principalName, @Param("idempotencyKey") String idempotencyKey,
+                     @Param("status") TransactionStatus status);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM IdempotencyKey k WHERE k.createdAt < :createdAt")
+    int deleteCreatedBefore(@Param("createdAt") LocalDateTime createdAt);
+}
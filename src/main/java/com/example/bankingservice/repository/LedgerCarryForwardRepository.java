@@ -0,0 +1,11 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.LedgerCarryForward;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerCarryForwardRepository extends JpaRepository<LedgerCarryForward, Long> {
+    List<LedgerCarryForward> findByAccountIdIn(Collection<Long> accountIds);
+}
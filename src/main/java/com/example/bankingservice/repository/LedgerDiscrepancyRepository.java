@@ -0,0 +1,10 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.LedgerDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LedgerDiscrepancyRepository extends JpaRepository<LedgerDiscrepancy, Long> {
+    List<LedgerDiscrepancy> findByRunIdOrderByAccountId(Long runId);
+}
@@ -0,0 +1,7 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.OutboxCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxCheckpointRepository extends JpaRepository<OutboxCheckpoint, String> {
+}
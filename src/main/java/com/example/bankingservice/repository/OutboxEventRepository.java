@@ -0,0 +1,33 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByDeliveredAtIsNullOrderById(Limit limit);
+
+    long countByDeliveredAtIsNull();
+
+    @Query(value = "SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.deliveredAt IS NULL")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+
+    @Query(value = "SELECT MAX(e.id) FROM OutboxEvent e")
+    Optional<Long> findLastId();
+
+    @Modifying
+    @Query(value = "UPDATE OutboxEvent e SET e.deliveredAt = :deliveredAt WHERE e.id IN :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM OutboxEvent e WHERE e.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before);
+}
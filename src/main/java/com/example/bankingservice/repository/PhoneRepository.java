@@ -1,10 +1,27 @@
 package com.example.bankingservice.repository;
 
 import com.example.bankingservice.model.Phone;
+import com.example.bankingservice.model.dto.UserValueDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PhoneRepository extends JpaRepository<Phone, Long> {
     Phone findPhoneByNumber(String content);
+
+    @Query(value = "SELECT p.number FROM Phone p WHERE p.number IN :numbers")
+    List<String> findExistingNumbers(@Param("numbers") Collection<String> numbers);
+
+    @Query(value = "SELECT p.number FROM Phone p WHERE p.number > :after ORDER BY p.number")
+    List<String> findNumbersAfter(@Param("after") String after, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.bankingservice.model.dto.UserValueDto(p.user.id, p.number) " +
+            "FROM Phone p WHERE p.user.id IN :userIds ORDER BY p.id")
+    List<UserValueDto> findNumbersByUserIds(@Param("userIds") Collection<Long> userIds);
 }
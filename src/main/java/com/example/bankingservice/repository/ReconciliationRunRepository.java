@@ -0,0 +1,12 @@
+package com.example.bankingservice.repository;
+
+import com.example.bankingservice.model.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    Optional<ReconciliationRun> findFirstByFinishedAtIsNotNullOrderByStartedAtDesc();
+
+    Optional<ReconciliationRun> findFirstByFullScanIsTrueAndFinishedAtIsNotNullOrderByStartedAtDesc();
+}
@@ -2,8 +2,12 @@ package com.example.bankingservice.repository;
 
 import com.example.bankingservice.model.User;
 import jakarta.annotation.Nonnull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +15,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -29,7 +35,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query(value = "SELECT t.user FROM Email t WHERE t.content LIKE :con")
     Optional<User> findUserByEmail(@Param("con") String email);
 
+    @Query(value = "SELECT u.login FROM User u WHERE u.login IN :logins")
+    List<String> findExistingLogins(@Param("logins") Collection<String> logins);
+
+    @Query(value = "SELECT u.login FROM User u WHERE u.login > :after ORDER BY u.login")
+    List<String> findLoginsAfter(@Param("after") String after, Pageable pageable);
+
     Page<User> findByUsernameLike(String username, Pageable pageable);
 
     Page<User> findByDateOfBirthAfter(LocalDate dateOfBirth, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"account"})
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"account"})
+    Window<User> findByUsernameStartingWith(String prefix, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"account"})
+    Window<User> findByDateOfBirthAfter(LocalDate dateOfBirth, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"account"})
+    Optional<User> findWithAccountById(Long id);
+
+    @Query(value = "SELECT u FROM User u LEFT JOIN FETCH u.account ORDER BY u.id")
+    List<User> findAllWithAccount();
 }
@@ -0,0 +1,101 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.LedgerCarryForward;
+import com.example.bankingservice.model.TransactionDirection;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.model.dto.TransactionPageDto;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.repository.LedgerCarryForwardRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import com.example.bankingservice.util.PageCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional(readOnly = true)
+public class AccountHistoryService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String SORT_BY = "createdAt";
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Comparator<TransactionDto> NEWEST_FIRST = Comparator
+            .comparing(TransactionDto::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(TransactionDto::getId, Comparator.reverseOrder());
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final LedgerCarryForwardRepository ledgerCarryForwardRepository;
+
+    public AccountHistoryService(BankAccountRepository bankAccountRepository,
+                                 BankTransactionRepository bankTransactionRepository,
+                                 LedgerCarryForwardRepository ledgerCarryForwardRepository) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.ledgerCarryForwardRepository = ledgerCarryForwardRepository;
+    }
+
+    public Optional<TransactionPageDto> getTransactions(Long accountId, TransactionDirection direction,
+                                                        LocalDateTime from, LocalDateTime to, String cursor,
+                                                        int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new AppRuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE +
+                    " / Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        if (!bankAccountRepository.existsById(accountId)) {
+            return Optional.empty();
+        }
+        LocalDateTime lower = from == null ? EARLIEST : from;
+        LocalDateTime beforeAt = to == null ? LATEST : to;
+        long beforeId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            if (!SORT_BY.equals(pageCursor.getSortBy())) {
+                throw new AppRuntimeException("Invalid cursor / Некорректный курсор: " + cursor);
+            }
+            try {
+                beforeAt = LocalDateTime.parse(pageCursor.getValue());
+            } catch (DateTimeParseException e) {
+                throw new AppRuntimeException("Invalid cursor / Некорректный курсор: " + cursor);
+            }
+            beforeId = pageCursor.getId();
+        }
+        Limit limit = Limit.of(size + 1);
+        Map<Long, TransactionDto> rows = new LinkedHashMap<>();
+        if (direction != TransactionDirection.INCOMING) {
+            bankTransactionRepository.findOutgoing(accountId, lower, beforeAt, beforeId, limit)
+                    .forEach(row -> rows.put(row.getId(), row));
+        }
+        if (direction != TransactionDirection.OUTGOING) {
+            bankTransactionRepository.findIncoming(accountId, lower, beforeAt, beforeId, limit)
+                    .forEach(row -> rows.putIfAbsent(row.getId(), row));
+        }
+        List<TransactionDto> page = new ArrayList<>(rows.values());
+        if (direction == TransactionDirection.BOTH) {
+            page.sort(NEWEST_FIRST);
+        }
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            TransactionDto last = page.get(size - 1);
+            nextCursor = new PageCursor(SORT_BY, Sort.Direction.DESC, last.getCreatedAt().toString(), last.getId())
+                    .encode();
+        }
+        // rows older than the archive boundary are no longer in the table, the page tells the client where it is
+        LocalDateTime archivedBefore = ledgerCarryForwardRepository.findById(accountId)
+                .map(LedgerCarryForward::getArchivedBefore)
+                .filter(lower::isBefore)
+                .orElse(null);
+        return Optional.of(new TransactionPageDto(List.copyOf(page), nextCursor, archivedBefore));
+    }
+}
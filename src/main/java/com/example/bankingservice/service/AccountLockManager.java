@@ -0,0 +1,116 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.dto.LockStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+@Service
+public class AccountLockManager {
+    private static final int HOTTEST_STRIPES_LIMIT = 10;
+    private final ReentrantLock[] stripes;
+    private final AtomicLongArray stripeContention;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public AccountLockManager(@Value("${bank.locks.stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeContention = new AtomicLongArray(stripeCount);
+    }
+
+    public AccountLock lock(Long... accountIds) {
+        int[] indexes = Arrays.stream(accountIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            acquire(index);
+        }
+        return new AccountLock(indexes);
+    }
+
+    public LockStatsDto getStats() {
+        long count = acquisitions.sum();
+        long wait = waitNanos.sum();
+        Map<Integer, Long> hottest = new LinkedHashMap<>();
+        IntStream.range(0, stripes.length)
+                .filter(i -> stripeContention.get(i) > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong(stripeContention::get).reversed())
+                .limit(HOTTEST_STRIPES_LIMIT)
+                .forEach(i -> hottest.put(i, stripeContention.get(i)));
+        return new LockStatsDto(stripes.length, count, contended.sum(), TimeUnit.NANOSECONDS.toMillis(wait),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(wait / count),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()), hottest);
+    }
+
+    private int stripeOf(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (h ^ (h >>> 32)), stripes.length);
+    }
+
+    private void acquire(int index) {
+        ReentrantLock lock = stripes[index];
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        contended.increment();
+        stripeContention.incrementAndGet(index);
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void release(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    public final class AccountLock implements AutoCloseable {
+        private final int[] indexes;
+
+        private AccountLock(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            // inside a transaction the stripes stay held until commit or rollback,
+            // so the next holder never reads a balance that is not yet committed
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        release(indexes);
+                    }
+                });
+            } else {
+                release(indexes);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.AsyncTransferStatsDto;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class AsyncTransferService {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferService.class);
+    private final BankTransactionService bankTransactionService;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService awaitExecutor;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+    private final Map<String, CompletableFuture<TransactionStatus>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AsyncTransferService(BankTransactionService bankTransactionService,
+                                BankTransactionRepository bankTransactionRepository,
+                                @Value("${bank.async-transfer.pool-size:4}") int poolSize,
+                                @Value("${bank.async-transfer.capacity:10000}") int queueCapacity,
+                                @Value("${bank.async-transfer.max-wait-millis:30000}") long maxWaitMillis) {
+        this.bankTransactionService = bankTransactionService;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = maxWaitMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+                r -> new Thread(r, "async-transfer-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger awaitThreadNumber = new AtomicInteger();
+        this.awaitExecutor = Executors.newFixedThreadPool(poolSize,
+                r -> new Thread(r, "async-transfer-await-" + awaitThreadNumber.incrementAndGet()));
+    }
+
+    // runs on a schedule, so a backlog larger than the queue is picked up page by page as the queue drains;
+    // rows already queued are still PENDING and come first by id, so the page is widened by their count
+    public void resumePending() {
+        int free = queue.remainingCapacity();
+        if (free == 0) {
+            return;
+        }
+        List<String> references = bankTransactionRepository.findTransferReferencesByStatus(TransactionStatus.PENDING,
+                Limit.of(free + inFlight.size()));
+        int resumed = 0;
+        for (String reference : references) {
+            if (inFlight.containsKey(reference)) {
+                continue;
+            }
+            if (!enqueue(reference)) {
+                break;
+            }
+            resumed++;
+        }
+        if (resumed > 0 && logger.isInfoEnabled()) {
+            logger.info("Pending transfers resumed / Возобновлены незавершенные переводы: {}", resumed);
+        }
+    }
+
+    public TransactionDto submit(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (queue.remainingCapacity() == 0) {
+            rejected.increment();
+            throw new AppRuntimeException("Transfer queue is full, try again later / Очередь переводов переполнена");
+        }
+        BankTransaction transaction = bankTransactionService.createPendingTransfer(fromAccountId, toAccountId, amount);
+        submitted.increment();
+        if (!enqueue(transaction.getTransactionReference())) {
+            complete(transaction.getTransactionReference(), new CompletableFuture<>(), true);
+            throw new AppRuntimeException("Transfer queue is full, try again later / Очередь переводов переполнена");
+        }
+        return toDto(transaction);
+    }
+
+    public Optional<TransactionDto> getTransfer(String transactionReference) {
+        return bankTransactionService.getByTransactionReference(transactionReference).map(AsyncTransferService::toDto);
+    }
+
+    public CompletableFuture<Optional<TransactionDto>> awaitTransfer(String transactionReference, long waitMillis) {
+        CompletableFuture<TransactionStatus> completion = inFlight.get(transactionReference);
+        if (waitMillis <= 0 || completion == null) {
+            return CompletableFuture.completedFuture(getTransfer(transactionReference));
+        }
+        return completion.copy()
+                .completeOnTimeout(TransactionStatus.PENDING, Math.min(waitMillis, maxWaitMillis), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> TransactionStatus.FAILED)
+                .thenApplyAsync(status -> getTransfer(transactionReference), awaitExecutor);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public AsyncTransferStatsDto getStats() {
+        return new AsyncTransferStatsDto(queue.size(), queueCapacity, executor.getActiveCount(), submitted.sum(),
+                rejected.sum(), succeeded.sum(), failed.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        awaitExecutor.shutdown();
+    }
+
+    private boolean enqueue(String transactionReference) {
+        CompletableFuture<TransactionStatus> completion = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(transactionReference, completion) != null) {
+            return true;
+        }
+        try {
+            executor.execute(() -> complete(transactionReference, completion, false));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            inFlight.remove(transactionReference, completion);
+            return false;
+        }
+    }
+
+    private void complete(String transactionReference, CompletableFuture<TransactionStatus> completion,
+                          boolean cancel) {
+        try {
+            TransactionStatus status = bankTransactionService.completeTransfer(transactionReference, cancel);
+            (status == TransactionStatus.SUCCESS ? succeeded : failed).increment();
+            completion.complete(status);
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (logger.isErrorEnabled()) {
+                logger.error("Transfer error / Ошибка перевода {}: {}", transactionReference, e.getMessage());
+            }
+            completion.completeExceptionally(e);
+        } finally {
+            inFlight.remove(transactionReference);
+        }
+    }
+
+    private static TransactionDto toDto(BankTransaction transaction) {
+        return new TransactionDto(transaction.getId(), transaction.getTransactionReference(),
+                transaction.getFromAccount() == null ? null : transaction.getFromAccount().getId(),
+                transaction.getToAccount() == null ? null : transaction.getToAccount().getId(),
+                transaction.getAmount(), transaction.getStatus(), transaction.getCreatedAt());
+    }
+}
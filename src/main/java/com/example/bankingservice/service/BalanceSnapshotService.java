@@ -0,0 +1,265 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.BalanceSnapshot;
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.LedgerCarryForward;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import com.example.bankingservice.model.dto.AccountBalanceDto;
+import com.example.bankingservice.repository.BalanceSnapshotRepository;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.repository.LedgerCarryForwardRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Transactional(readOnly = true)
+public class BalanceSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSnapshotService.class);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final List<TransactionStatus> UNSETTLED = List.of(TransactionStatus.PENDING,
+            TransactionStatus.PROCESSING);
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final LedgerCarryForwardRepository ledgerCarryForwardRepository;
+    private final InterestCalculator interestCalculator;
+    private final HotAccountService hotAccountService;
+    private final int chunkSize;
+
+    public BalanceSnapshotService(BalanceSnapshotRepository balanceSnapshotRepository,
+                                  BankAccountRepository bankAccountRepository,
+                                  BankTransactionRepository bankTransactionRepository,
+                                  LedgerCarryForwardRepository ledgerCarryForwardRepository,
+                                  InterestCalculator interestCalculator,
+                                  HotAccountService hotAccountService,
+                                  @Value("${bank.snapshots.chunk-size:1000}") int chunkSize) {
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.ledgerCarryForwardRepository = ledgerCarryForwardRepository;
+        this.interestCalculator = interestCalculator;
+        this.hotAccountService = hotAccountService;
+        this.chunkSize = chunkSize;
+    }
+
+    public Optional<AccountBalanceDto> getBalance(Long accountId) {
+        return getBalanceAt(accountId, LocalDateTime.now(), true);
+    }
+
+    public Optional<AccountBalanceDto> getBalanceAt(Long accountId, LocalDateTime at) {
+        return getBalanceAt(accountId, at, !at.isBefore(LocalDateTime.now()));
+    }
+
+    private Optional<AccountBalanceDto> getBalanceAt(Long accountId, LocalDateTime at, boolean current) {
+        Optional<BankAccount> account = bankAccountRepository.findById(accountId);
+        if (account.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, at.toLocalDate());
+        Optional<LedgerCarryForward> archived = ledgerCarryForwardRepository.findById(accountId);
+        if (snapshot.isEmpty()) {
+            Optional<BalanceSnapshot> first = balanceSnapshotRepository
+                    .findFirstByAccountIdOrderBySnapshotDateAsc(accountId);
+            if (first.isPresent()) {
+                return Optional.of(getBalanceBefore(account.get(), first.get(), archived, at, current));
+            }
+        }
+        // an account without any snapshot was opened after the last snapshot run, so its whole ledger is short
+        BigDecimal balance = snapshot.map(BalanceSnapshot::getBalance).orElse(account.get().getInitialBalance());
+        LocalDateTime from = snapshot.map(s -> s.getSnapshotDate().plusDays(1).atStartOfDay()).orElse(EARLIEST);
+        LocalDate snapshotDate = snapshot.map(BalanceSnapshot::getSnapshotDate).orElse(null);
+        if (archived.isPresent() && from.isBefore(at) && from.isBefore(archived.get().getArchivedBefore())) {
+            if (at.isBefore(archived.get().getArchivedBefore())) {
+                throw new AppRuntimeException("Transactions before " + archived.get().getArchivedBefore() +
+                        " are archived / Транзакции до " + archived.get().getArchivedBefore() + " перенесены в архив");
+            }
+            balance = archived.get().openingBalance(account.get().getInitialBalance());
+            from = archived.get().getArchivedBefore();
+            snapshotDate = null;
+        }
+        if (from.isBefore(at)) {
+            balance = balance
+                    .add(bankTransactionRepository.sumCredits(accountId, from, at, TransactionStatus.SUCCESS))
+                    .subtract(bankTransactionRepository.sumDebits(accountId, from, at, TransactionStatus.SUCCESS));
+        }
+        return Optional.of(new AccountBalanceDto(accountId, at, project(account.get(), balance, at, current),
+                snapshotDate));
+    }
+
+    // The first snapshot seeds the history of an account: a moment on its day is replayed backwards from the end
+    // of that day, and earlier moments are rejected instead of replaying the ledger from its start.
+    private AccountBalanceDto getBalanceBefore(BankAccount account, BalanceSnapshot first,
+                                               Optional<LedgerCarryForward> archived, LocalDateTime at,
+                                               boolean current) {
+        if (at.toLocalDate().isBefore(first.getSnapshotDate())) {
+            throw new AppRuntimeException("Balance history starts at " + first.getSnapshotDate() +
+                    " / История балансов начинается с " + first.getSnapshotDate());
+        }
+        if (archived.isPresent() && at.isBefore(archived.get().getArchivedBefore())) {
+            throw new AppRuntimeException("Transactions before " + archived.get().getArchivedBefore() +
+                    " are archived / Транзакции до " + archived.get().getArchivedBefore() + " перенесены в архив");
+        }
+        LocalDateTime to = first.getSnapshotDate().plusDays(1).atStartOfDay();
+        BigDecimal balance = first.getBalance()
+                .subtract(bankTransactionRepository.sumCredits(account.getId(), at, to, TransactionStatus.SUCCESS))
+                .add(bankTransactionRepository.sumDebits(account.getId(), at, to, TransactionStatus.SUCCESS));
+        return new AccountBalanceDto(account.getId(), at, project(account, balance, at, current),
+                first.getSnapshotDate());
+    }
+
+    private BigDecimal project(BankAccount account, BigDecimal balance, LocalDateTime at, boolean current) {
+        LocalDateTime accruedAt = account.getAccruedAt();
+        if (!interestCalculator.isLazy() || accruedAt == null || at.isBefore(accruedAt)) {
+            return balance;
+        }
+        // unconsolidated slot funds of a hot account do not accrue yet; slots keep no history, so only the current
+        // balance has them split out and a past moment projects the whole ledger balance
+        BigDecimal slots = !current ? BigDecimal.ZERO : hotAccountService.getSlotTotals(List.of(account.getId()))
+                .getOrDefault(account.getId(), BigDecimal.ZERO);
+        return interestCalculator.project(balance.subtract(slots), account.getInitialBalance(), accruedAt, at)
+                .balance().add(slots);
+    }
+
+    @Transactional
+    public int takeSnapshots() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate date = balanceSnapshotRepository.findLastSnapshotDate().map(d -> d.plusDays(1)).orElse(yesterday);
+        int written = 0;
+        for (; !date.isAfter(yesterday); date = date.plusDays(1)) {
+            if (isUnsettled(date)) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("Balance snapshots deferred, transfers still in progress / Снимки балансов отложены, " +
+                            "есть незавершенные переводы за {}", date);
+                }
+                break;
+            }
+            written += takeSnapshot(date);
+        }
+        return written;
+    }
+
+    // an asynchronous transfer keeps the createdAt of its submission, so a day is closed only once every transfer
+    // submitted on it has settled; otherwise a late completion would never reach that day's totals
+    private boolean isUnsettled(LocalDate date) {
+        return bankTransactionRepository.existsByStatusInAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(UNSETTLED,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    @Transactional
+    public int takeSnapshot(LocalDate date) {
+        Optional<LocalDate> last = balanceSnapshotRepository.findLastSnapshotDate();
+        if (last.isPresent() && !date.isAfter(last.get())) {
+            throw new AppRuntimeException("Balance snapshots are already taken up to / Снимки балансов уже сняты по " +
+                    last.get());
+        }
+        if (isUnsettled(date)) {
+            throw new AppRuntimeException("Transfers are still in progress on / Есть незавершенные переводы за " +
+                    date);
+        }
+        long start = System.nanoTime();
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        Map<Long, BigDecimal> debits = toMap(bankTransactionRepository.findDebitTotals(from, to,
+                TransactionStatus.SUCCESS));
+        Map<Long, BigDecimal> credits = toMap(bankTransactionRepository.findCreditTotals(from, to,
+                TransactionStatus.SUCCESS));
+        TreeSet<Long> active = new TreeSet<>(debits.keySet());
+        active.addAll(credits.keySet());
+        int written = 0;
+        List<AccountAmountDto> fresh;
+        long lastId = Long.MIN_VALUE;
+        do {
+            fresh = bankAccountRepository.findWithoutSnapshotAfter(lastId, PageRequest.of(0, chunkSize));
+            if (!fresh.isEmpty()) {
+                written += bootstrap(fresh, date, to, debits, credits);
+                fresh.forEach(account -> active.remove(account.getAccountId()));
+                lastId = fresh.get(fresh.size() - 1).getAccountId();
+            }
+        } while (fresh.size() == chunkSize);
+        List<Long> ids = new ArrayList<>(active);
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            written += roll(ids.subList(i, Math.min(ids.size(), i + chunkSize)), date, debits, credits);
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Balance snapshots taken / Сняты снимки балансов за {}: {} accounts in {} ms", date, written,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return written;
+    }
+
+    private int bootstrap(List<AccountAmountDto> accounts, LocalDate date, LocalDateTime to,
+                          Map<Long, BigDecimal> debits, Map<Long, BigDecimal> credits) {
+        List<Long> ids = accounts.stream().map(AccountAmountDto::getAccountId).toList();
+        Map<Long, BigDecimal> debitsBefore = toMap(bankTransactionRepository.findDebitTotalsBefore(ids, to,
+                TransactionStatus.SUCCESS));
+        Map<Long, BigDecimal> creditsBefore = toMap(bankTransactionRepository.findCreditTotalsBefore(ids, to,
+                TransactionStatus.SUCCESS));
+        Map<Long, LedgerCarryForward> archived = new HashMap<>();
+        for (LedgerCarryForward carryForward : ledgerCarryForwardRepository.findByAccountIdIn(ids)) {
+            if (to.isBefore(carryForward.getArchivedBefore())) {
+                throw new AppRuntimeException("Transactions before " + carryForward.getArchivedBefore() +
+                        " are archived / Транзакции до " + carryForward.getArchivedBefore() + " перенесены в архив");
+            }
+            archived.put(carryForward.getAccountId(), carryForward);
+        }
+        List<BalanceSnapshot> snapshots = new ArrayList<>(accounts.size());
+        for (AccountAmountDto account : accounts) {
+            Long id = account.getAccountId();
+            LedgerCarryForward carryForward = archived.get(id);
+            BigDecimal balance = (carryForward == null ? account.getAmount()
+                    : carryForward.openingBalance(account.getAmount()))
+                    .add(creditsBefore.getOrDefault(id, BigDecimal.ZERO))
+                    .subtract(debitsBefore.getOrDefault(id, BigDecimal.ZERO));
+            snapshots.add(new BalanceSnapshot(id, date, balance, debits.getOrDefault(id, BigDecimal.ZERO),
+                    credits.getOrDefault(id, BigDecimal.ZERO)));
+        }
+        balanceSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private int roll(List<Long> ids, LocalDate date, Map<Long, BigDecimal> debits, Map<Long, BigDecimal> credits) {
+        Map<Long, BigDecimal> previous = new HashMap<>();
+        for (BalanceSnapshot snapshot : balanceSnapshotRepository.findLatestBefore(ids, date)) {
+            previous.put(snapshot.getAccountId(), snapshot.getBalance());
+        }
+        List<BalanceSnapshot> snapshots = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BigDecimal balance = previous.get(id);
+            if (balance == null) {
+                continue;
+            }
+            BigDecimal debit = debits.getOrDefault(id, BigDecimal.ZERO);
+            BigDecimal credit = credits.getOrDefault(id, BigDecimal.ZERO);
+            snapshots.add(new BalanceSnapshot(id, date, balance.add(credit).subtract(debit), debit, credit));
+        }
+        balanceSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private static Map<Long, BigDecimal> toMap(List<AccountAmountDto> amounts) {
+        Map<Long, BigDecimal> map = new HashMap<>(amounts.size() * 2);
+        for (AccountAmountDto amount : amounts) {
+            map.put(amount.getAccountId(), amount.getAmount());
+        }
+        return map;
+    }
+}
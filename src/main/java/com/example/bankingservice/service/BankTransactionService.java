@@ -2,35 +2,78 @@ package com.example.bankingservice.service;
 
 import com.example.bankingservice.model.BankAccount;
 import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.OutboxEvent;
+import com.example.bankingservice.model.OutboxEventType;
 import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.JournalEntryDto;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
 import com.example.bankingservice.repository.BankAccountRepository;
 import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.repository.OutboxEventRepository;
 import com.example.bankingservice.util.AppRuntimeException;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @Getter
 @Transactional(readOnly = true)
 public class BankTransactionService {
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds / Недостаточно средств";
     private static final Logger logger = LoggerFactory.getLogger(BankTransactionService.class);
-    private final BigDecimal BALANCE_MULTIPLY_LIMIT = BigDecimal.valueOf(2.07);
-    private final BigDecimal BALANCE_INCREASE_PERCENTAGE = BigDecimal.valueOf(0.05);
+    private static final Duration REFERENCE_CLOCK_SKEW = Duration.ofMinutes(1);
+    private static final Duration REFERENCE_MAX_DELAY = Duration.ofDays(1);
+    private final BigDecimal BALANCE_MULTIPLY_LIMIT = InterestCalculator.BALANCE_MULTIPLY_LIMIT;
+    private final BigDecimal BALANCE_INCREASE_PERCENTAGE = InterestCalculator.BALANCE_INCREASE_PERCENTAGE;
     private final BankTransactionRepository bankTransactionRepository;
     private final BankAccountRepository bankAccountRepository;
+    private final AccountLockManager accountLockManager;
+    private final HotAccountService hotAccountService;
+    private final TransactionReferenceGenerator transactionReferenceGenerator;
+    private final InterestCalculator interestCalculator;
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean outboxEnabled;
+    private final boolean journalEnabled;
 
-    public BankTransactionService(BankTransactionRepository bankTransactionRepository, BankAccountRepository bankAccountRepository) {
+    public BankTransactionService(BankTransactionRepository bankTransactionRepository, BankAccountRepository bankAccountRepository,
+                                  AccountLockManager accountLockManager, HotAccountService hotAccountService,
+                                  TransactionReferenceGenerator transactionReferenceGenerator,
+                                  InterestCalculator interestCalculator,
+                                  OutboxEventRepository outboxEventRepository,
+                                  @Value("${bank.outbox.enabled:true}") boolean outboxEnabled,
+                                  @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode) {
         this.bankTransactionRepository = bankTransactionRepository;
         this.bankAccountRepository = bankAccountRepository;
+        this.accountLockManager = accountLockManager;
+        this.hotAccountService = hotAccountService;
+        this.transactionReferenceGenerator = transactionReferenceGenerator;
+        this.interestCalculator = interestCalculator;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEnabled = outboxEnabled;
+        this.journalEnabled = transferMode == TransferMode.JOURNAL;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,81 +86,569 @@ public class BankTransactionService {
     }
 
     public Optional<BankTransaction> getByTransactionReference(String transactionReference) {
+        Optional<Instant> timestamp = transactionReferenceGenerator.findTimestamp(transactionReference);
+        if (timestamp.isPresent()) {
+            LocalDateTime createdAt = LocalDateTime.ofInstant(timestamp.get(), ZoneId.systemDefault());
+            Optional<BankTransaction> transaction = bankTransactionRepository
+                    .findByTransactionReferenceAndCreatedAtBetween(transactionReference,
+                            createdAt.minus(REFERENCE_CLOCK_SKEW), createdAt.plus(REFERENCE_MAX_DELAY));
+            if (transaction.isPresent()) {
+                return transaction;
+            }
+        }
         return bankTransactionRepository.findByTransactionReference(transactionReference);
     }
 
+    public Optional<BigDecimal> calculateInterest(BankAccount account) {
+        return calculateInterest(account, hotAccountService.getSlotTotals(List.of(account.getId()))
+                .getOrDefault(account.getId(), BigDecimal.ZERO));
+    }
+
+    private Optional<BigDecimal> calculateInterest(BankAccount account, BigDecimal slots) {
+        final BigDecimal amountLimit = account.getInitialBalance().multiply(BALANCE_MULTIPLY_LIMIT);
+        BigDecimal balance = account.getBalance().add(slots);
+        BigDecimal amount = balance.multiply(BALANCE_INCREASE_PERCENTAGE);
+        BigDecimal increasedAmount = balance.add(amount);
+        if ((balance.compareTo(BigDecimal.ZERO) > 0) && (increasedAmount.compareTo(amountLimit) <= 0)) {
+            return Optional.of(amount);
+        }
+        return Optional.empty();
+    }
+
     @Transactional
     public void chargeInterest(BankAccount account) {
-        final BigDecimal amountLimit = account.getInitialBalance().multiply(BALANCE_MULTIPLY_LIMIT);
-        BigDecimal amount = account.getBalance().multiply(BALANCE_INCREASE_PERCENTAGE);
-        BigDecimal increasedAmount = account.getBalance().add(amount);
-        if ((account.getBalance().compareTo(BigDecimal.ZERO) > 0) && (increasedAmount.compareTo(amountLimit) <= 0)) {
-            String transactionId = UUID.randomUUID().toString();
-            BankTransaction transaction = new BankTransaction(transactionId, null, account, amount, TransactionStatus.PENDING);
-            try {
+        try (AccountLockManager.AccountLock ignored = accountLockManager.lock(account.getId())) {
+            Optional<BigDecimal> interest = calculateInterest(account);
+            if (interest.isPresent()) {
+                BigDecimal amount = interest.get();
+                String transactionId = transactionReferenceGenerator.next();
+                BankTransaction transaction = new BankTransaction(transactionId, null, account, amount, TransactionStatus.PENDING);
+                try {
+                    transaction.deposit(amount);
+                    account.setAccruedAt(LocalDateTime.now());
+                    bankAccountRepository.save(account);
+                    bankTransactionRepository.save(transaction);
+                    transaction.setStatus(TransactionStatus.SUCCESS);
+                    publish(List.of(transaction), true);
+                    if (logger.isInfoEnabled()) {
+                        logger.info("The account has accrued interest on the amount / На счет начислены проценты на сумму {} ({})",
+                                amount, account);
+                        logger.info("Balance after depositing / Баланс после пополнения: " + account.getBalance());
+                    }
+                } catch (AppRuntimeException e) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    if (logger.isErrorEnabled()) {
+                        logger.info("Transaction error / Ошибка транзакции {}", transaction);
+                    }
+                }
+            }
+        }
+    }
+
+    @Transactional
+    public int chargeInterest(Collection<Long> accountIds) {
+        return chargeInterest(accountIds, LocalDateTime.now());
+    }
+
+    // an account whose accruedAt is not before the run's start was charged by that run already and is skipped;
+    // the start is cut to the microseconds accruedAt is stored with. The chunk's rows are locked in id order, as in
+    // SQL mode, so a concurrent transfer waits instead of failing the whole chunk on a version conflict.
+    @Transactional
+    public int chargeInterest(Collection<Long> accountIds, LocalDateTime runStartedAt) {
+        LocalDateTime startedAt = runStartedAt.truncatedTo(ChronoUnit.MICROS);
+        List<BankAccount> accounts = bankAccountRepository.findAllForUpdateByIdIn(accountIds);
+        Map<Long, BigDecimal> slots = hotAccountService.getSlotTotals(accountIds);
+        List<BankTransaction> transactions = new ArrayList<>(accounts.size());
+        for (BankAccount account : accounts) {
+            if (account.getAccruedAt() != null && !account.getAccruedAt().isBefore(startedAt)) {
+                continue;
+            }
+            Optional<BigDecimal> interest = calculateInterest(account,
+                    slots.getOrDefault(account.getId(), BigDecimal.ZERO));
+            if (interest.isPresent()) {
+                BigDecimal amount = interest.get();
+                String transactionId = transactionReferenceGenerator.next();
+                BankTransaction transaction = new BankTransaction(transactionId, null, account, amount, TransactionStatus.PENDING);
                 transaction.deposit(amount);
-                bankAccountRepository.save(account);
-                bankTransactionRepository.save(transaction);
                 transaction.setStatus(TransactionStatus.SUCCESS);
-                if (logger.isInfoEnabled()) {
-                    logger.info("The account has accrued interest on the amount / На счет начислены проценты на сумму {} ({})",
-                            amount, account);
-                    logger.info("Balance after depositing / Баланс после пополнения: " + account.getBalance());
-                }
-            } catch (AppRuntimeException e) {
-                transaction.setStatus(TransactionStatus.FAILED);
-                if (logger.isErrorEnabled()) {
-                    logger.info("Transaction error / Ошибка транзакции {}", transaction);
-                }
+                account.setAccruedAt(startedAt);
+                transactions.add(transaction);
             }
         }
+        bankTransactionRepository.saveAll(transactions);
+        publish(transactions, true);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Interest accrued for accounts / Проценты начислены на счета: {} of {}",
+                    transactions.size(), accounts.size());
+        }
+        return transactions.size();
     }
 
     @Transactional
-    public void increaseBalance(BankAccount account, BigDecimal amount) {
-        String transactionId = UUID.randomUUID().toString();
-        BankTransaction transaction = new BankTransaction(transactionId, null, account, amount, TransactionStatus.PENDING);
-        try {
-            transaction.deposit(amount);
-            bankAccountRepository.save(account);
-            bankTransactionRepository.save(transaction);
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            if (logger.isInfoEnabled()) {
-                logger.info("Depositing account / Пополнение счета: {} {}", account, amount);
-                logger.info("Balance after depositing / Баланс после пополнения: " + account.getBalance());
+    public int chargeInterestInDatabase(Long fromAccountId, Long toAccountId) {
+        return chargeInterestInDatabase(fromAccountId, toAccountId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public int chargeInterestInDatabase(Long fromAccountId, Long toAccountId, LocalDateTime runStartedAt) {
+        LocalDateTime startedAt = runStartedAt.truncatedTo(ChronoUnit.MICROS);
+        // the range is locked in id order first, so no transfer changes a balance between the INSERT and the UPDATE;
+        // slots of hot accounts in it are moved into the main balance, which both statements read, as ENTITY mode
+        // charges interest on the balance and the slots together
+        bankAccountRepository.lockIdsBetween(fromAccountId, toAccountId);
+        hotAccountService.getHotAccountIds().stream()
+                .filter(accountId -> accountId >= fromAccountId && accountId <= toAccountId)
+                .sorted()
+                .forEach(hotAccountService::consolidate);
+        String reference = transactionReferenceGenerator.next();
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int inserted = bankTransactionRepository.insertInterestTransactions(fromAccountId, toAccountId,
+                BALANCE_INCREASE_PERCENTAGE, BALANCE_MULTIPLY_LIMIT, startedAt, createdAt, reference,
+                TransactionStatus.SUCCESS);
+        int updated = bankAccountRepository.accrueInterest(fromAccountId, toAccountId,
+                BALANCE_INCREASE_PERCENTAGE, BALANCE_MULTIPLY_LIMIT, startedAt);
+        if (inserted != updated) {
+            throw new AppRuntimeException(String.format("Interest accrual mismatch for accounts %d-%d: " +
+                    "%d transactions, %d balances / Несоответствие начисления процентов", fromAccountId, toAccountId,
+                    inserted, updated));
+        }
+        if (outboxEnabled) {
+            bankTransactionRepository.insertInterestOutboxEvents(fromAccountId, toAccountId, createdAt, reference);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Interest accrued in database for accounts / Проценты начислены в БД на счета {}-{}: {}",
+                    fromAccountId, toAccountId, updated);
+        }
+        return updated;
+    }
+
+    @Transactional
+    public int materializeInterest(Collection<Long> accountIds) {
+        List<BankTransaction> transactions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (BankAccount account : bankAccountRepository.findAllForUpdateByIdIn(accountIds)) {
+            materializeInterest(account, now, transactions);
+        }
+        bankTransactionRepository.saveAll(transactions);
+        publish(transactions, true);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Interest materialized for accounts / Проценты зафиксированы на счетах: {} of {}",
+                    transactions.size(), accountIds.size());
+        }
+        return transactions.size();
+    }
+
+    private void materializeInterest(BankAccount account, LocalDateTime now, List<BankTransaction> transactions) {
+        if (account.getAccruedAt() == null) {
+            account.setAccruedAt(now);
+            return;
+        }
+        InterestCalculator.Accrual accrual = interestCalculator.project(account.getBalance(),
+                account.getInitialBalance(), account.getAccruedAt(), now);
+        if (accrual.minutes() == 0) {
+            return;
+        }
+        account.setAccruedAt(account.getAccruedAt().plusMinutes(accrual.minutes()));
+        if (accrual.interest().signum() > 0) {
+            BankTransaction transaction = new BankTransaction(transactionReferenceGenerator.next(), null, account,
+                    accrual.interest(), TransactionStatus.SUCCESS);
+            account.setBalance(accrual.balance());
+            transactions.add(transaction);
+        }
+    }
+
+    // slot funds of a hot account are moved into its locked balance, so in-memory funds checks see all of them
+    private Map<Long, BankAccount> lockAccounts(Collection<Long> accountIds, List<BankTransaction> interest) {
+        Map<Long, BankAccount> accounts = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (BankAccount account : bankAccountRepository.findAllForUpdateByIdIn(accountIds)) {
+            accounts.put(account.getId(), account);
+            if (interestCalculator.isLazy()) {
+                materializeInterest(account, now, interest);
             }
-        } catch (AppRuntimeException e) {
+            if (hotAccountService.isHot(account.getId())) {
+                account.setBalance(account.getBalance().add(hotAccountService.drainSlots(account.getId())));
+            }
+        }
+        return accounts;
+    }
+
+    // in LAZY mode interest up to now is fixed before any change of a main balance, hot accounts included
+    private void materializeBeforeUpdate(Collection<Long> accountIds) {
+        if (interestCalculator.isLazy()) {
+            materializeInterest(accountIds);
+            bankAccountRepository.flush();
+        }
+    }
+
+    @Transactional
+    public boolean increaseBalance(BankAccount account, BigDecimal amount) {
+        String transactionId = transactionReferenceGenerator.next();
+        BankTransaction transaction = new BankTransaction(transactionId, null, account, amount, TransactionStatus.PENDING);
+        if (!depositTo(account.getId(), amount)) {
             transaction.setStatus(TransactionStatus.FAILED);
             if (logger.isErrorEnabled()) {
                 logger.info("Transaction error / Ошибка транзакции {}", transaction);
             }
+            return false;
+        }
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        bankTransactionRepository.save(transaction);
+        publish(List.of(transaction), false);
+        if (logger.isInfoEnabled()) {
+            logger.info("Depositing account / Пополнение счета: {} {}", account, amount);
         }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Balance after depositing / Баланс после пополнения: {}",
+                    bankAccountRepository.findBalanceById(account.getId()).orElse(null));
+        }
+        return true;
     }
 
     @Transactional
-    public void decreaseBalance(BankAccount account, BigDecimal amount) {
-        String transactionId = UUID.randomUUID().toString();
+    public boolean decreaseBalance(BankAccount account, BigDecimal amount) {
+        checkJournalDisabled();
+        String transactionId = transactionReferenceGenerator.next();
         BankTransaction transaction = new BankTransaction(transactionId, account, null, amount, TransactionStatus.PENDING);
+        if (!withdrawFrom(account.getId(), amount)) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            if (logger.isInfoEnabled()) {
+                logger.info("Try to withdraw from account / Попытка снятия со счета: {} {} ", account, amount);
+                logger.info("Insufficient funds. Withdrawal cancelled. / Недостаточно средств. Операция отменена");
+            }
+            return false;
+        }
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        bankTransactionRepository.save(transaction);
+        publish(List.of(transaction), false);
+        if (logger.isInfoEnabled()) {
+            logger.info("Withdrawal from account / Снятие со счета: {} {}", account, amount);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Balance after withdrawal / Баланс после снятия: {}",
+                    bankAccountRepository.findBalanceById(account.getId()).orElse(null));
+        }
+        return true;
+    }
+
+    @Transactional
+    public boolean transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        checkJournalDisabled();
+        // the rows are locked in id order like in the other multi-account paths, so the guarded UPDATEs below
+        // cannot deadlock with them; a hot target is credited through its slots and its row is left free
+        bankAccountRepository.lockIdsIn(hotAccountService.isHot(toAccountId) ? List.of(fromAccountId)
+                : List.of(fromAccountId, toAccountId));
+        if (!withdrawFrom(fromAccountId, amount)) {
+            return false;
+        }
+        if (!depositTo(toAccountId, amount)) {
+            throw new AppRuntimeException("Target account not found / Счет получателя не найден: " + toAccountId);
+        }
+        publish(List.of(bankTransactionRepository.save(new BankTransaction(transactionReferenceGenerator.next(),
+                bankAccountRepository.getReferenceById(fromAccountId),
+                bankAccountRepository.getReferenceById(toAccountId), amount, TransactionStatus.SUCCESS))), false);
+        return true;
+    }
+
+    // A transfer split across two transactions is stored as PROCESSING without its target by the debit leg and
+    // completed by settleTransfer or refundTransfer, so a finished transfer is one row as in the other modes and a
+    // debit whose credit was lost stays recognisable until it is refunded.
+    @Transactional
+    public String beginTransfer(Long fromAccountId, BigDecimal amount) {
+        checkJournalDisabled();
+        if (!withdrawFrom(fromAccountId, amount)) {
+            return null;
+        }
+        return bankTransactionRepository.save(new BankTransaction(transactionReferenceGenerator.next(),
+                bankAccountRepository.getReferenceById(fromAccountId), null, amount, TransactionStatus.PROCESSING))
+                .getTransactionReference();
+    }
+
+    @Transactional
+    public boolean settleTransfer(String transactionReference, Long toAccountId) {
+        BankTransaction transaction = findStartedTransfer(transactionReference);
+        if (!depositTo(toAccountId, transaction.getAmount())) {
+            return false;
+        }
+        transaction.setToAccount(bankAccountRepository.getReferenceById(toAccountId));
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        publish(List.of(transaction), false);
+        return true;
+    }
+
+    @Transactional
+    public boolean refundTransfer(String transactionReference) {
+        BankTransaction transaction = findStartedTransfer(transactionReference);
+        if (!depositTo(transaction.getFromAccount().getId(), transaction.getAmount())) {
+            return false;
+        }
+        transaction.setStatus(TransactionStatus.FAILED);
+        return true;
+    }
+
+    public List<String> getStartedTransferReferences() {
+        return bankTransactionRepository.findDebitReferencesByStatus(TransactionStatus.PROCESSING);
+    }
+
+    private BankTransaction findStartedTransfer(String transactionReference) {
+        return getByTransactionReference(transactionReference)
+                .filter(t -> t.getStatus() == TransactionStatus.PROCESSING && t.getToAccount() == null)
+                .orElseThrow(() -> new AppRuntimeException("Transaction not found / Транзакция не найдена: " +
+                        transactionReference));
+    }
+
+    @Transactional
+    public boolean transferOptimistic(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        checkJournalDisabled();
+        // a hot account keeps part of its funds in slots and takes credits there, so it goes through the guarded
+        // path that counts the slots instead of a versioned write of its row
+        if (hotAccountService.isHot(fromAccountId) || hotAccountService.isHot(toAccountId)) {
+            return transfer(fromAccountId, toAccountId, amount);
+        }
+        BankAccount fromAccount = bankAccountRepository.findById(fromAccountId)
+                .orElseThrow(() -> new AppRuntimeException("Account not found / Счет не найден: " + fromAccountId));
+        BankAccount toAccount = bankAccountRepository.findById(toAccountId)
+                .orElseThrow(() -> new AppRuntimeException("Account not found / Счет не найден: " + toAccountId));
+        BankTransaction transaction = new BankTransaction(transactionReferenceGenerator.next(), fromAccount,
+                toAccount, amount, TransactionStatus.PENDING);
+        List<BankTransaction> interest = new ArrayList<>();
+        if (interestCalculator.isLazy()) {
+            LocalDateTime now = LocalDateTime.now();
+            materializeInterest(fromAccount, now, interest);
+            materializeInterest(toAccount, now, interest);
+        }
         try {
             transaction.withdraw(amount);
-            bankAccountRepository.save(account);
-            bankTransactionRepository.save(transaction);
-            transaction.setStatus(TransactionStatus.SUCCESS);
+        } catch (AppRuntimeException e) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            return false;
+        }
+        transaction.deposit(amount);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        bankAccountRepository.saveAllAndFlush(List.of(fromAccount, toAccount));
+        bankTransactionRepository.saveAll(interest);
+        bankTransactionRepository.save(transaction);
+        publish(interest, true);
+        publish(List.of(transaction), false);
+        if (logger.isInfoEnabled()) {
+            logger.info("Transfer from account / Перевод со счета: {} to {} {}", fromAccount, toAccount, amount);
+        }
+        return true;
+    }
+
+    @Transactional
+    public List<TransferResultDto> applyTransfers(List<TransferEntryDto> entries) {
+        return applyTransfers(entries, false);
+    }
+
+    @Transactional
+    public List<TransferResultDto> applyTransfers(List<TransferEntryDto> entries, boolean atomic) {
+        checkJournalDisabled();
+        Set<Long> accountIds = new TreeSet<>();
+        for (TransferEntryDto entry : entries) {
+            if (entry.getFromAccountId() != null && entry.getToAccountId() != null) {
+                accountIds.add(entry.getFromAccountId());
+                accountIds.add(entry.getToAccountId());
+            }
+        }
+        List<BankTransaction> transactions = new ArrayList<>(entries.size());
+        Map<Long, BankAccount> accounts = lockAccounts(accountIds, transactions);
+        int interestRows = transactions.size();
+        List<TransferResultDto> results = new ArrayList<>(entries.size());
+        for (TransferEntryDto entry : entries) {
+            results.add(applyTransfer(entry, accounts, transactions));
+        }
+        if (atomic && results.stream().anyMatch(result -> result.getStatus() != TransactionStatus.SUCCESS)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             if (logger.isInfoEnabled()) {
-                logger.info("Withdrawal from account / Снятие со счета: {} {}", account, amount);
-                logger.info("Balance after withdrawal / Баланс после снятия: " + account.getBalance());
+                logger.info("Transfer batch rolled back / Пакет переводов отменен: {} entries", entries.size());
             }
-        } catch (AppRuntimeException e) {
+            return results.stream()
+                    .map(result -> result.getStatus() == TransactionStatus.SUCCESS ? TransferResultDto.rolledBack(result)
+                            : result)
+                    .toList();
+        }
+        bankTransactionRepository.saveAll(transactions);
+        publish(transactions.subList(0, interestRows), true);
+        publish(transactions.subList(interestRows, transactions.size()), false);
+        if (logger.isInfoEnabled()) {
+            logger.info("Applied transfers / Выполнены переводы: {} of {}", transactions.size() - interestRows,
+                    entries.size());
+        }
+        return results;
+    }
+
+    private TransferResultDto applyTransfer(TransferEntryDto entry, Map<Long, BankAccount> accounts,
+                                            List<BankTransaction> transactions) {
+        BankAccount fromAccount = accounts.get(entry.getFromAccountId());
+        BankAccount toAccount = accounts.get(entry.getToAccountId());
+        if (fromAccount == null || toAccount == null) {
+            return TransferResultDto.failure(entry, "Account not found / Счет не найден");
+        }
+        if (entry.getAmount() == null || entry.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return TransferResultDto.failure(entry, "Amount must be positive / Сумма должна быть положительной");
+        }
+        if (fromAccount.getBalance().compareTo(entry.getAmount()) < 0) {
+            return TransferResultDto.failure(entry, INSUFFICIENT_FUNDS);
+        }
+        String transactionId = transactionReferenceGenerator.next();
+        BankTransaction transaction = new BankTransaction(transactionId, fromAccount, toAccount, entry.getAmount(),
+                TransactionStatus.PENDING);
+        transaction.withdraw(entry.getAmount());
+        transaction.deposit(entry.getAmount());
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transactions.add(transaction);
+        return TransferResultDto.success(entry, transactionId);
+    }
+
+    @Transactional
+    public BankTransaction createPendingTransfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        checkJournalDisabled();
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new AppRuntimeException("Amount must be positive / Сумма должна быть положительной");
+        }
+        for (Long accountId : List.of(fromAccountId, toAccountId)) {
+            if (!bankAccountRepository.existsById(accountId)) {
+                throw new AppRuntimeException("Account not found / Счет не найден: " + accountId);
+            }
+        }
+        return bankTransactionRepository.save(new BankTransaction(transactionReferenceGenerator.next(),
+                bankAccountRepository.getReferenceById(fromAccountId),
+                bankAccountRepository.getReferenceById(toAccountId), amount, TransactionStatus.PENDING));
+    }
+
+    @Transactional
+    public TransactionStatus completeTransfer(String transactionReference, boolean cancel) {
+        BankTransaction transaction = getByTransactionReference(transactionReference)
+                .orElseThrow(() -> new AppRuntimeException("Transaction not found / Транзакция не найдена: " +
+                        transactionReference));
+        // the row is claimed before any balance is touched, so a concurrent completion of the same reference waits
+        // on the row lock and then finds it no longer PENDING; id and createdAt keep both statements on one partition
+        boolean claimed = bankTransactionRepository.updateStatus(transaction.getId(), transaction.getCreatedAt(),
+                TransactionStatus.PENDING, TransactionStatus.PROCESSING) == 1;
+        if (!claimed) {
+            return bankTransactionRepository.findStatus(transaction.getId(), transaction.getCreatedAt());
+        }
+        // a transfer queued before a switch to JOURNAL mode is cancelled rather than debited behind the journal
+        if (cancel || journalEnabled) {
             transaction.setStatus(TransactionStatus.FAILED);
-            if (logger.isErrorEnabled()) {
-                logger.info("Transaction error / Ошибка транзакции {}", transaction);
+            return TransactionStatus.FAILED;
+        }
+        Set<Long> accountIds = new TreeSet<>(List.of(transaction.getFromAccount().getId(),
+                transaction.getToAccount().getId()));
+        List<BankTransaction> interest = new ArrayList<>();
+        Map<Long, BankAccount> accounts = lockAccounts(accountIds, interest);
+        bankTransactionRepository.saveAll(interest);
+        publish(interest, true);
+        if (accounts.get(transaction.getFromAccount().getId()).getBalance().compareTo(transaction.getAmount()) < 0) {
+            transaction.setStatus(TransactionStatus.FAILED);
+        } else {
+            transaction.withdraw(transaction.getAmount());
+            transaction.deposit(transaction.getAmount());
+            transaction.setStatus(TransactionStatus.SUCCESS);
+            publish(List.of(transaction), false);
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Transfer completed / Перевод завершен: {} {}", transactionReference, transaction.getStatus());
+        }
+        return transaction.getStatus();
+    }
+
+    // Entries were acknowledged to the client when they reached the journal, so each one is stored as SUCCESS.
+    // In JOURNAL mode every other debit path is refused and credits only make the journal's cached balances
+    // understate the funds, so a locked balance that cannot cover an entry means the ledger went wrong elsewhere;
+    // it is logged, not hidden by failing a transfer the client was told had succeeded.
+    @Transactional
+    public void applyJournalEntries(List<JournalEntryDto> entries) {
+        Set<String> applied = new HashSet<>(bankTransactionRepository.findExistingReferences(
+                entries.stream().map(JournalEntryDto::getTransactionReference).toList()));
+        Set<Long> accountIds = new TreeSet<>();
+        for (JournalEntryDto entry : entries) {
+            if (!applied.contains(entry.getTransactionReference())) {
+                accountIds.add(entry.getFromAccountId());
+                accountIds.add(entry.getToAccountId());
+            }
+        }
+        List<BankTransaction> transactions = new ArrayList<>(entries.size());
+        Map<Long, BankAccount> accounts = lockAccounts(accountIds, transactions);
+        int interestRows = transactions.size();
+        Map<Long, BigDecimal> slots = hotAccountService.getSlotTotals(accountIds);
+        for (JournalEntryDto entry : entries) {
+            if (!applied.add(entry.getTransactionReference())) {
+                continue;
+            }
+            BankAccount fromAccount = accounts.get(entry.getFromAccountId());
+            BankAccount toAccount = accounts.get(entry.getToAccountId());
+            if (fromAccount == null || toAccount == null) {
+                throw new AppRuntimeException("Account not found / Счет не найден: " + entry.getTransactionReference());
             }
+            BankTransaction transaction = new BankTransaction(entry.getTransactionReference(), fromAccount, toAccount,
+                    entry.getAmount(), TransactionStatus.SUCCESS);
+            BigDecimal funds = fromAccount.getBalance().add(slots.getOrDefault(fromAccount.getId(), BigDecimal.ZERO));
+            if (funds.compareTo(entry.getAmount()) < 0 && logger.isErrorEnabled()) {
+                logger.error("Journal transfer overdraws the account / Перевод из журнала превышает остаток: " +
+                                "{} {} -> {} {} (balance {})", entry.getTransactionReference(), fromAccount.getId(),
+                        toAccount.getId(), entry.getAmount(), funds);
+            }
+            fromAccount.setBalance(fromAccount.getBalance().subtract(entry.getAmount()));
+            transaction.deposit(entry.getAmount());
+            transactions.add(transaction);
         }
+        bankTransactionRepository.saveAll(transactions);
+        publish(transactions.subList(0, interestRows), true);
+        publish(transactions.subList(interestRows, transactions.size()), false);
     }
 
     @Transactional
-    public void internalFundTransfer(BankAccount fromAccount, BankAccount toAccount, BigDecimal amount) {
-        decreaseBalance(fromAccount, amount);
-        increaseBalance(toAccount, amount);
+    public boolean internalFundTransfer(BankAccount fromAccount, BankAccount toAccount, BigDecimal amount) {
+        Long[] lockedIds = hotAccountService.isHot(toAccount.getId())
+                ? new Long[]{fromAccount.getId()} : new Long[]{fromAccount.getId(), toAccount.getId()};
+        try (AccountLockManager.AccountLock ignored = accountLockManager.lock(lockedIds)) {
+            return transfer(fromAccount.getId(), toAccount.getId(), amount);
+        }
+    }
+
+    // the journal checks funds against balances it caches between flushes, so no debit may bypass it
+    private void checkJournalDisabled() {
+        if (journalEnabled) {
+            throw new AppRuntimeException("Transfers go through the transfer journal in JOURNAL mode / " +
+                    "В режиме JOURNAL переводы проходят через журнал переводов");
+        }
+    }
+
+    private boolean depositTo(Long accountId, BigDecimal amount) {
+        if (hotAccountService.isHot(accountId) && hotAccountService.depositToSlot(accountId, amount)) {
+            return true;
+        }
+        materializeBeforeUpdate(List.of(accountId));
+        return bankAccountRepository.deposit(accountId, amount) == 1;
+    }
+
+    private boolean withdrawFrom(Long accountId, BigDecimal amount) {
+        materializeBeforeUpdate(List.of(accountId));
+        if (hotAccountService.isHot(accountId)) {
+            return hotAccountService.withdraw(accountId, amount);
+        }
+        return bankAccountRepository.withdraw(accountId, amount) == 1;
+    }
+
+    @Transactional
+    public int rebalanceHotAccounts() {
+        materializeBeforeUpdate(hotAccountService.getHotAccountIds());
+        return hotAccountService.rebalance();
+    }
+
+    private void publish(List<BankTransaction> transactions, boolean interest) {
+        if (!outboxEnabled || transactions.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (BankTransaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.SUCCESS) {
+                events.add(new OutboxEvent(interest ? OutboxEventType.INTEREST : OutboxEventType.of(transaction),
+                        transaction));
+            }
+        }
+        outboxEventRepository.saveAll(events);
     }
 }
@@ -2,8 +2,11 @@ package com.example.bankingservice.service;
 
 import com.example.bankingservice.model.Email;
 import com.example.bankingservice.repository.EmailRepository;
+import com.example.bankingservice.service.validation.DuplicateValueErrors;
+import com.example.bankingservice.service.validation.UniquenessFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +19,11 @@ import java.util.Optional;
 public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     private final EmailRepository emailRepository;
+    private final UniquenessFilter uniquenessFilter;
 
-    public EmailService(EmailRepository emailRepository) {
+    public EmailService(EmailRepository emailRepository, UniquenessFilter uniquenessFilter) {
         this.emailRepository = emailRepository;
+        this.uniquenessFilter = uniquenessFilter;
     }
 
     public Optional<Email> getEmailById(Long id) {
@@ -31,7 +36,13 @@ public class EmailService {
 
     @Transactional
     public Email createEmail(Email email) {
-        Email dbEmail = emailRepository.save(email);
+        Email dbEmail;
+        try {
+            dbEmail = emailRepository.saveAndFlush(email);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, List.of(), List.of(email));
+        }
+        uniquenessFilter.put(UniquenessFilter.Kind.EMAIL, dbEmail.getContent());
         if (logger.isInfoEnabled()) {
             logger.info("Created email / Создан email {}", dbEmail);
         }
@@ -40,7 +51,13 @@ public class EmailService {
 
     @Transactional
     public List<Email> createEmails(List<Email> emails) {
-        List<Email> dbEmails = emailRepository.saveAll(emails);
+        List<Email> dbEmails;
+        try {
+            dbEmails = emailRepository.saveAllAndFlush(emails);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, List.of(), emails);
+        }
+        dbEmails.forEach(saved -> uniquenessFilter.put(UniquenessFilter.Kind.EMAIL, saved.getContent()));
         if (logger.isInfoEnabled()) {
             logger.info("Created emails / Созданы email {}", dbEmails);
         }
@@ -49,7 +66,13 @@ public class EmailService {
 
     @Transactional
     public Optional<Email> updateEmail(Long id, Email updatedEmail) {
-        Optional<Email> updated = emailRepository.findById(id).map(oldEmail -> emailRepository.save(updatedEmail));
+        Optional<Email> updated;
+        try {
+            updated = emailRepository.findById(id).map(oldEmail -> emailRepository.saveAndFlush(updatedEmail));
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, List.of(), List.of(updatedEmail));
+        }
+        updated.ifPresent(saved -> uniquenessFilter.put(UniquenessFilter.Kind.EMAIL, saved.getContent()));
         if (logger.isInfoEnabled()) {
             updated.ifPresent(n -> logger.info("Updated email / Обновлен email {}", updated.get()));
         }
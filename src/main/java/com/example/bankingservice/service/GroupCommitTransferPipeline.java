@@ -0,0 +1,180 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.PipelineStatsDto;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class GroupCommitTransferPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitTransferPipeline.class);
+    private static final int[] HISTOGRAM_BOUNDS = {1, 4, 16, 64, 256, 1024};
+    private final BankTransactionService bankTransactionService;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final int queueCapacity;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final boolean enabled;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BOUNDS.length + 1);
+    private volatile boolean running;
+    private Thread worker;
+
+    public GroupCommitTransferPipeline(BankTransactionService bankTransactionService,
+                                       @Value("${bank.pipeline.capacity:10000}") int queueCapacity,
+                                       @Value("${bank.pipeline.window-micros:2000}") long windowMicros,
+                                       @Value("${bank.pipeline.max-batch:500}") int maxBatchSize,
+                                       @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode) {
+        this.bankTransactionService = bankTransactionService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.enabled = transferMode == TransferMode.BATCHED;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "transfer-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public CompletableFuture<TransferResultDto> submit(TransferEntryDto entry) {
+        if (!enabled) {
+            throw new AppRuntimeException("Transfer pipeline is used only when bank.transfer.mode=BATCHED / " +
+                    "Конвейер переводов используется только в режиме BATCHED");
+        }
+        PendingTransfer pending = new PendingTransfer(entry, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new AppRuntimeException("Transfer queue is full, try again later / Очередь переводов переполнена");
+        }
+        return pending.result;
+    }
+
+    public PipelineStatsDto getStats() {
+        long batchCount = batches.sum();
+        long transferCount = transfers.sum();
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        int lower = 1;
+        for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+            sizes.put(lower == HISTOGRAM_BOUNDS[i] ? String.valueOf(lower) : lower + "-" + HISTOGRAM_BOUNDS[i],
+                    histogram.get(i));
+            lower = HISTOGRAM_BOUNDS[i] + 1;
+        }
+        sizes.put(lower + "+", histogram.get(HISTOGRAM_BOUNDS.length));
+        return new PipelineStatsDto(queue.size(), queueCapacity, batchCount, transferCount,
+                batchCount == 0 ? 0 : (double) transferCount / batchCount, largestBatch.get(),
+                batchCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(commitNanos.sum() / batchCount), sizes);
+    }
+
+    private void drain() {
+        List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingTransfer rejected;
+        while ((rejected = queue.poll()) != null) {
+            rejected.result.completeExceptionally(new AppRuntimeException("Service is stopping / Сервис остановлен"));
+        }
+    }
+
+    private void apply(List<PendingTransfer> batch) {
+        List<TransferEntryDto> entries = batch.stream().map(PendingTransfer::entry).toList();
+        long start = System.nanoTime();
+        try {
+            List<TransferResultDto> results = bankTransactionService.applyTransfers(entries);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Transfer batch failed, applying one by one / Ошибка пакета переводов: {}", e.getMessage());
+            }
+            for (PendingTransfer pending : batch) {
+                try {
+                    pending.result.complete(bankTransactionService.applyTransfers(List.of(pending.entry)).get(0));
+                } catch (RuntimeException ex) {
+                    pending.result.completeExceptionally(ex);
+                }
+            }
+        }
+        commitNanos.add(System.nanoTime() - start);
+        record(batch.size());
+    }
+
+    private void record(int size) {
+        batches.increment();
+        transfers.add(size);
+        largestBatch.accumulateAndGet(size, Math::max);
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS.length && size > HISTOGRAM_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+    }
+
+    private record PendingTransfer(TransferEntryDto entry, CompletableFuture<TransferResultDto> result) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.BalanceSlot;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import com.example.bankingservice.repository.BalanceSlotRepository;
+import com.example.bankingservice.repository.BankAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class HotAccountService {
+    private static final Logger logger = LoggerFactory.getLogger(HotAccountService.class);
+    private final BalanceSlotRepository balanceSlotRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final Set<Long> hotAccountIds;
+    private final int slotCount;
+
+    public HotAccountService(BalanceSlotRepository balanceSlotRepository,
+                             BankAccountRepository bankAccountRepository,
+                             @Value("${bank.hot-accounts.ids:}") String hotAccountIds,
+                             @Value("${bank.hot-accounts.slots:8}") int slotCount) {
+        this.balanceSlotRepository = balanceSlotRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.hotAccountIds = Arrays.stream(hotAccountIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.slotCount = slotCount;
+    }
+
+    public boolean isHot(Long accountId) {
+        return hotAccountIds.contains(accountId);
+    }
+
+    public Set<Long> getHotAccountIds() {
+        return hotAccountIds;
+    }
+
+    public Optional<BigDecimal> getBalance(Long accountId) {
+        Optional<BigDecimal> balance = bankAccountRepository.findBalanceById(accountId);
+        if (balance.isEmpty() || !isHot(accountId)) {
+            return balance;
+        }
+        return Optional.of(balance.get().add(balanceSlotRepository.sumBalanceByAccountId(accountId)));
+    }
+
+    public Map<Long, BigDecimal> getSlotTotals(Collection<Long> accountIds) {
+        List<Long> hot = accountIds.stream().filter(this::isHot).distinct().toList();
+        if (hot.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (AccountAmountDto total : balanceSlotRepository.findTotalsByAccountIdIn(hot)) {
+            totals.put(total.getAccountId(), total.getAmount());
+        }
+        return totals;
+    }
+
+    @Transactional
+    public boolean deposit(Long accountId, BigDecimal amount) {
+        return depositToSlot(accountId, amount) || bankAccountRepository.deposit(accountId, amount) == 1;
+    }
+
+    @Transactional
+    public boolean depositToSlot(Long accountId, BigDecimal amount) {
+        int slot = ThreadLocalRandom.current().nextInt(slotCount);
+        return balanceSlotRepository.deposit(accountId, slot, amount) == 1;
+    }
+
+    @Transactional
+    public boolean withdraw(Long accountId, BigDecimal amount) {
+        if (bankAccountRepository.withdraw(accountId, amount) == 1) {
+            return true;
+        }
+        int start = ThreadLocalRandom.current().nextInt(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            if (balanceSlotRepository.withdraw(accountId, (start + i) % slotCount, amount) == 1) {
+                return true;
+            }
+        }
+        if (consolidate(accountId).signum() == 0) {
+            return false;
+        }
+        return bankAccountRepository.withdraw(accountId, amount) == 1;
+    }
+
+    @Transactional
+    public BigDecimal consolidate(Long accountId) {
+        bankAccountRepository.lockById(accountId);
+        BigDecimal total = drainSlots(accountId);
+        if (total.signum() != 0) {
+            bankAccountRepository.deposit(accountId, total);
+        }
+        return total;
+    }
+
+    // the caller holds the account row lock and adds the returned total to the main balance itself
+    @Transactional
+    public BigDecimal drainSlots(Long accountId) {
+        List<BalanceSlot> slots = balanceSlotRepository.findAllForUpdateByAccountId(accountId);
+        BigDecimal total = BigDecimal.ZERO;
+        for (BalanceSlot slot : slots) {
+            total = total.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        if (total.signum() != 0) {
+            balanceSlotRepository.saveAllAndFlush(slots);
+        }
+        return total;
+    }
+
+    @Transactional
+    public int rebalance() {
+        int consolidated = 0;
+        for (Long accountId : hotAccountIds) {
+            if (bankAccountRepository.findBalanceById(accountId).isEmpty()) {
+                continue;
+            }
+            Set<Integer> existing = new HashSet<>(balanceSlotRepository.findSlotsByAccountId(accountId));
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (!existing.contains(slot)) {
+                    balanceSlotRepository.save(new BalanceSlot(accountId, slot));
+                }
+            }
+            if (consolidate(accountId).signum() != 0) {
+                consolidated++;
+            }
+        }
+        if (consolidated > 0 && logger.isDebugEnabled()) {
+            logger.debug("Hot account slots consolidated / Слоты горячих счетов консолидированы: {}", consolidated);
+        }
+        return consolidated;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.IdempotencyKey;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.IdempotencyStatsDto;
+import com.example.bankingservice.repository.IdempotencyKeyRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int cacheCapacity;
+    private final long ttlNanos;
+    private final int retentionDays;
+    private final boolean supported;
+    private final Map<ScopedKey, CachedResult> cache = new LinkedHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bank.idempotency.cache-size:10000}") int cacheCapacity,
+                              @Value("${bank.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                              @Value("${bank.idempotency.retention-days:30}") int retentionDays,
+                              @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheCapacity = cacheCapacity;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.retentionDays = retentionDays;
+        // the key is only as atomic as the transfer: the batched, partitioned and journal modes commit the transfer
+        // on their own threads, outside the transaction that records the key
+        this.supported = transferMode == TransferMode.ATOMIC || transferMode == TransferMode.OPTIMISTIC;
+    }
+
+    public boolean transfer(String key, Long fromAccountId, Long toAccountId, BigDecimal amount,
+                            BooleanSupplier transfer) {
+        if (!supported) {
+            throw new AppRuntimeException("Idempotency-Key is supported only in ATOMIC and OPTIMISTIC transfer " +
+                    "modes / Ключ идемпотентности поддерживается только в режимах ATOMIC и OPTIMISTIC");
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new AppRuntimeException("Invalid Idempotency-Key / Некорректный ключ идемпотентности");
+        }
+        ScopedKey scopedKey = new ScopedKey(currentPrincipal(), key);
+        CachedResult cached = get(scopedKey);
+        if (cached != null) {
+            hits.increment();
+            return replay(key, cached.fromAccountId, cached.toAccountId, cached.amount, cached.status,
+                    fromAccountId, toAccountId, amount);
+        }
+        misses.increment();
+        // the key, the transfer and the final status commit together: a crash before commit leaves no key behind,
+        // and a concurrent request with the same key waits on the unique index until the first one finishes
+        TransactionStatus status;
+        try {
+            status = transactionTemplate.execute(tx -> {
+                idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(scopedKey.principalName, key, fromAccountId,
+                        toAccountId, amount));
+                TransactionStatus result = transfer.getAsBoolean() ? TransactionStatus.SUCCESS
+                        : TransactionStatus.FAILED;
+                idempotencyKeyRepository.updateStatus(scopedKey.principalName, key, result);
+                return result;
+            });
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyKey stored = idempotencyKeyRepository
+                    .findByPrincipalNameAndIdempotencyKey(scopedKey.principalName, key)
+                    .orElseThrow(() -> new AppRuntimeException(
+                            "Request is being processed, try again later / Запрос обрабатывается, повторите позже"));
+            databaseHits.increment();
+            if (stored.getStatus() != TransactionStatus.PROCESSING) {
+                put(scopedKey, new CachedResult(stored.getFromAccountId(), stored.getToAccountId(),
+                        stored.getAmount(), stored.getStatus(), System.nanoTime() + ttlNanos));
+            }
+            return replay(key, stored.getFromAccountId(), stored.getToAccountId(), stored.getAmount(),
+                    stored.getStatus(), fromAccountId, toAccountId, amount);
+        }
+        put(scopedKey, new CachedResult(fromAccountId, toAccountId, amount, status, System.nanoTime() + ttlNanos));
+        return status == TransactionStatus.SUCCESS;
+    }
+
+    public int deleteExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (logger.isInfoEnabled()) {
+            logger.info("Idempotency keys deleted / Удалено ключей идемпотентности: {}", deleted);
+        }
+        return deleted;
+    }
+
+    public IdempotencyStatsDto getStats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new IdempotencyStatsDto(size, cacheCapacity, hitCount, misses.sum(),
+                lookups == 0 ? 0 : (double) hitCount / lookups, databaseHits.sum(), expired.sum(), evicted.sum());
+    }
+
+    private boolean replay(String key, Long storedFromAccountId, Long storedToAccountId, BigDecimal storedAmount,
+                           TransactionStatus status, Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (!Objects.equals(storedFromAccountId, fromAccountId) || !Objects.equals(storedToAccountId, toAccountId)
+                || storedAmount == null || amount == null || storedAmount.compareTo(amount) != 0) {
+            throw new AppRuntimeException(
+                    "Idempotency-Key was used for another request / Ключ идемпотентности использован для другого запроса");
+        }
+        if (status == TransactionStatus.PROCESSING) {
+            throw new AppRuntimeException(
+                    "Request is being processed, try again later / Запрос обрабатывается, повторите позже");
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Transfer replayed by Idempotency-Key / Повтор перевода по ключу идемпотентности: {}", key);
+        }
+        return status == TransactionStatus.SUCCESS;
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || auth.getName() == null ? "" : auth.getName();
+    }
+
+    private CachedResult get(ScopedKey key) {
+        synchronized (cache) {
+            CachedResult cached = cache.get(key);
+            if (cached != null && cached.expiresAt - System.nanoTime() <= 0) {
+                cache.remove(key);
+                expired.increment();
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void put(ScopedKey key, CachedResult result) {
+        synchronized (cache) {
+            cache.remove(key);
+            cache.put(key, result);
+            long now = System.nanoTime();
+            Iterator<CachedResult> oldest = cache.values().iterator();
+            while (oldest.hasNext()) {
+                CachedResult next = oldest.next();
+                if (next.expiresAt - now <= 0) {
+                    expired.increment();
+                } else if (cache.size() > cacheCapacity) {
+                    evicted.increment();
+                } else {
+                    break;
+                }
+                oldest.remove();
+            }
+        }
+    }
+
+    private record ScopedKey(String principalName, String key) {
+    }
+
+    private record CachedResult(Long fromAccountId, Long toAccountId, BigDecimal amount, TransactionStatus status,
+                                long expiresAt) {
+    }
+}
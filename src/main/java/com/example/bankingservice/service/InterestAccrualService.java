@@ -0,0 +1,220 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.AccrualMode;
+import com.example.bankingservice.model.dto.AccrualChunkDto;
+import com.example.bankingservice.model.dto.AccrualProgressDto;
+import com.example.bankingservice.repository.BankAccountRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class InterestAccrualService {
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualService.class);
+    private static final int LAST_CHUNKS_LIMIT = 20;
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionService bankTransactionService;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final AccrualMode accrualMode;
+    private final AtomicInteger activeRuns = new AtomicInteger();
+    private final AtomicLong runSequence = new AtomicLong();
+    private final Deque<AccrualChunkDto> lastChunks = new ConcurrentLinkedDeque<>();
+    private volatile AccrualRun currentRun;
+
+    public InterestAccrualService(BankAccountRepository bankAccountRepository,
+                                  BankTransactionService bankTransactionService,
+                                  @Value("${bank.accrual.chunk-size:1000}") int chunkSize,
+                                  @Value("${bank.accrual.pool-size:4}") int poolSize,
+                                  @Value("${bank.accrual.max-attempts:3}") int maxAttempts,
+                                  @Value("${bank.accrual.mode:ENTITY}") AccrualMode accrualMode) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionService = bankTransactionService;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.accrualMode = accrualMode;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2),
+                r -> new Thread(r, "interest-accrual-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void chargeInterest() {
+        if (accrualMode == AccrualMode.LAZY) {
+            return;
+        }
+        run();
+    }
+
+    public void compactInterest() {
+        if (accrualMode != AccrualMode.LAZY) {
+            return;
+        }
+        run();
+    }
+
+    // Every call is a run of its own: a slow or failing run does not hold back the next minute. What a run has
+    // charged is recorded in each account's accruedAt, so a retried chunk skips the accounts it already charged.
+    private void run() {
+        AccrualRun run = new AccrualRun(runSequence.incrementAndGet());
+        currentRun = run;
+        activeRuns.incrementAndGet();
+        try {
+            execute(run);
+        } finally {
+            activeRuns.decrementAndGet();
+        }
+    }
+
+    public AccrualProgressDto getProgress() {
+        AccrualRun run = currentRun;
+        List<AccrualChunkDto> chunks = new ArrayList<>(lastChunks);
+        if (run == null) {
+            return new AccrualProgressDto(0, false, null, null, 0, 0, 0, 0, 0, null, chunks);
+        }
+        int completed = 0;
+        int failed = 0;
+        for (Chunk chunk : run.chunks.values()) {
+            if (chunk.done) {
+                completed++;
+            } else if (chunk.attempts > 0) {
+                failed++;
+            }
+        }
+        return new AccrualProgressDto(run.id, activeRuns.get() > 0, run.startedAt, run.finishedAt,
+                run.chunks.size(), completed, failed, run.accountsProcessed.get(), run.accountsCharged.get(),
+                run.getCheckpoint(), chunks);
+    }
+
+    private void execute(AccrualRun run) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try {
+            while (!run.planned) {
+                List<Long> ids = bankAccountRepository.findIdsAfter(run.plannedUpTo, PageRequest.ofSize(chunkSize));
+                if (ids.isEmpty()) {
+                    run.planned = true;
+                } else {
+                    Chunk chunk = new Chunk(ids);
+                    run.chunks.put(chunk.firstId(), chunk);
+                    run.plannedUpTo = chunk.lastId();
+                    futures.add(submit(run, chunk));
+                }
+            }
+        } catch (RuntimeException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Interest accrual planning error / Ошибка планирования начисления процентов: {}",
+                        e.getMessage());
+            }
+        } finally {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        run.finishedAt = LocalDateTime.now();
+        if (logger.isInfoEnabled()) {
+            logger.info("Interest accrual run finished / Начисление процентов завершено: {} ({} of {} accounts)",
+                    run.id, run.accountsCharged.get(), run.accountsProcessed.get());
+        }
+    }
+
+    private CompletableFuture<Void> submit(AccrualRun run, Chunk chunk) {
+        return CompletableFuture.runAsync(() -> process(run, chunk), executor);
+    }
+
+    private void process(AccrualRun run, Chunk chunk) {
+        long start = System.nanoTime();
+        int charged = 0;
+        while (!chunk.done && chunk.attempts < maxAttempts) {
+            chunk.attempts++;
+            try {
+                charged = switch (accrualMode) {
+                    case SQL -> bankTransactionService.chargeInterestInDatabase(chunk.firstId(), chunk.lastId(),
+                            run.startedAt);
+                    case LAZY -> bankTransactionService.materializeInterest(chunk.ids);
+                    case ENTITY -> bankTransactionService.chargeInterest(chunk.ids, run.startedAt);
+                };
+                chunk.done = true;
+                run.accountsProcessed.addAndGet(chunk.ids.size());
+                run.accountsCharged.addAndGet(charged);
+            } catch (RuntimeException e) {
+                if (logger.isErrorEnabled()) {
+                    logger.error("Interest accrual chunk error / Ошибка начисления процентов для счетов {}-{} " +
+                            "(attempt {}): {}", chunk.firstId(), chunk.lastId(), chunk.attempts, e.getMessage());
+                }
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastChunks.addFirst(new AccrualChunkDto(chunk.firstId(), chunk.lastId(), chunk.ids.size(), charged, elapsed,
+                !chunk.done));
+        while (lastChunks.size() > LAST_CHUNKS_LIMIT) {
+            lastChunks.pollLast();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class AccrualRun {
+        private final long id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final NavigableMap<Long, Chunk> chunks = new ConcurrentSkipListMap<>();
+        private final AtomicLong accountsProcessed = new AtomicLong();
+        private final AtomicLong accountsCharged = new AtomicLong();
+        private volatile Long plannedUpTo = 0L;
+        private volatile boolean planned;
+        private volatile LocalDateTime finishedAt;
+
+        private AccrualRun(long id) {
+            this.id = id;
+        }
+
+        private Long getCheckpoint() {
+            Long checkpoint = null;
+            for (Chunk chunk : chunks.values()) {
+                if (!chunk.done) {
+                    break;
+                }
+                checkpoint = chunk.lastId();
+            }
+            return checkpoint;
+        }
+    }
+
+    private static final class Chunk {
+        private final List<Long> ids;
+        private volatile int attempts;
+        private volatile boolean done;
+
+        private Chunk(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        private Long firstId() {
+            return ids.get(0);
+        }
+
+        private Long lastId() {
+            return ids.get(ids.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.AccrualMode;
+import com.example.bankingservice.model.BankAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+public class InterestCalculator {
+    public static final BigDecimal BALANCE_MULTIPLY_LIMIT = BigDecimal.valueOf(2.07);
+    public static final BigDecimal BALANCE_INCREASE_PERCENTAGE = BigDecimal.valueOf(0.05);
+    private static final int BALANCE_SCALE = 2;
+    private final AccrualMode accrualMode;
+
+    public InterestCalculator(@Value("${bank.accrual.mode:ENTITY}") AccrualMode accrualMode) {
+        this.accrualMode = accrualMode;
+    }
+
+    public record Accrual(BigDecimal balance, BigDecimal interest, long minutes) {
+    }
+
+    public boolean isLazy() {
+        return accrualMode == AccrualMode.LAZY;
+    }
+
+    // slot funds of a hot account start accruing once they are consolidated into the main balance
+    public BigDecimal currentBalance(BankAccount account, BigDecimal slots) {
+        if (!isLazy()) {
+            return account.getBalance().add(slots);
+        }
+        return project(account.getBalance(), account.getInitialBalance(), account.getAccruedAt(), LocalDateTime.now())
+                .balance().add(slots);
+    }
+
+    public Accrual project(BigDecimal balance, BigDecimal initialBalance, LocalDateTime accruedAt, LocalDateTime at) {
+        long minutes = accruedAt == null || !at.isAfter(accruedAt) ? 0 : Duration.between(accruedAt, at).toMinutes();
+        if (minutes == 0 || balance == null || balance.signum() <= 0 || initialBalance == null) {
+            return new Accrual(balance, BigDecimal.ZERO, minutes);
+        }
+        BigDecimal limit = initialBalance.multiply(BALANCE_MULTIPLY_LIMIT);
+        // Compounding stops at the cap after O(log(limit / balance)) steps whatever the elapsed time;
+        // each step is rounded to the stored scale so the result matches a balance charged once a minute.
+        BigDecimal projected = balance;
+        for (long i = 0; i < minutes; i++) {
+            BigDecimal increased = projected.add(projected.multiply(BALANCE_INCREASE_PERCENTAGE));
+            if (increased.compareTo(limit) > 0) {
+                break;
+            }
+            BigDecimal rounded = increased.setScale(BALANCE_SCALE, RoundingMode.HALF_UP);
+            if (rounded.compareTo(projected) == 0) {
+                break;
+            }
+            projected = rounded;
+        }
+        return new Accrual(projected, projected.subtract(balance), minutes);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.LedgerCarryForward;
+import com.example.bankingservice.model.LedgerDiscrepancy;
+import com.example.bankingservice.model.ReconciliationRun;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.AccountAmountDto;
+import com.example.bankingservice.model.dto.AccountLedgerDto;
+import com.example.bankingservice.model.dto.LedgerDiscrepancyDto;
+import com.example.bankingservice.model.dto.ReconciliationReportDto;
+import com.example.bankingservice.repository.BalanceSlotRepository;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.repository.LedgerCarryForwardRepository;
+import com.example.bankingservice.repository.LedgerDiscrepancyRepository;
+import com.example.bankingservice.repository.ReconciliationRunRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class LedgerReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationService.class);
+    // a transaction stamped just before the previous run started may have committed after it
+    private static final Duration CHECKPOINT_OVERLAP = Duration.ofMinutes(5);
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BalanceSlotRepository balanceSlotRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final LedgerDiscrepancyRepository ledgerDiscrepancyRepository;
+    private final LedgerCarryForwardRepository ledgerCarryForwardRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int fullScanDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerReconciliationService(BankAccountRepository bankAccountRepository,
+                                       BankTransactionRepository bankTransactionRepository,
+                                       BalanceSlotRepository balanceSlotRepository,
+                                       ReconciliationRunRepository reconciliationRunRepository,
+                                       LedgerDiscrepancyRepository ledgerDiscrepancyRepository,
+                                       LedgerCarryForwardRepository ledgerCarryForwardRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${bank.reconciliation.chunk-size:1000}") int chunkSize,
+                                       @Value("${bank.reconciliation.full-scan-days:7}") int fullScanDays,
+                                       @Value("${bank.reconciliation.parallelism:4}") int parallelism) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.balanceSlotRepository = balanceSlotRepository;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.ledgerDiscrepancyRepository = ledgerDiscrepancyRepository;
+        this.ledgerCarryForwardRepository = ledgerCarryForwardRepository;
+        this.chunkSize = chunkSize;
+        this.fullScanDays = fullScanDays;
+        // balances and ledger totals of a chunk are read from one snapshot so concurrent transfers do not show up
+        // as discrepancies
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("ledger-reconciliation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public ReconciliationReportDto reconcile() {
+        return reconcile(false);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ReconciliationReportDto runReconciliation(boolean fullScan) {
+        return reconcile(fullScan);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public Optional<ReconciliationReportDto> getLastReport() {
+        return reconciliationRunRepository.findFirstByFinishedAtIsNotNullOrderByStartedAtDesc().map(this::toReport);
+    }
+
+    private ReconciliationReportDto reconcile(boolean fullScan) {
+        if (!running.compareAndSet(false, true)) {
+            throw new AppRuntimeException("Ledger reconciliation is already running / Сверка счетов уже выполняется");
+        }
+        try {
+            return execute(fullScan);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReportDto execute(boolean fullScan) {
+        long start = System.nanoTime();
+        // the incremental pass only sees accounts with ledger rows, so a balance changed without one is caught by
+        // the periodic full scan
+        boolean fullScanDue = reconciliationRunRepository
+                .findFirstByFullScanIsTrueAndFinishedAtIsNotNullOrderByStartedAtDesc()
+                .map(run -> run.getStartedAt().isBefore(LocalDateTime.now().minusDays(fullScanDays)))
+                .orElse(true);
+        LocalDateTime since = fullScan || fullScanDue ? null : reconciliationRunRepository
+                .findFirstByFinishedAtIsNotNullOrderByStartedAtDesc()
+                .map(run -> run.getStartedAt().minus(CHECKPOINT_OVERLAP))
+                .orElse(null);
+        ReconciliationRun run = writeTemplate.execute(status -> reconciliationRunRepository.save(
+                new ReconciliationRun(since == null, since, LocalDateTime.now())));
+        List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>();
+        if (since == null) {
+            List<Long> ids;
+            Long lastId = 0L;
+            do {
+                ids = bankAccountRepository.findIdsAfter(lastId, PageRequest.ofSize(chunkSize));
+                if (!ids.isEmpty()) {
+                    tasks.add(submit(run.getId(), ids));
+                    lastId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == chunkSize);
+        } else {
+            TreeSet<Long> touched = new TreeSet<>(bankTransactionRepository.findDebitAccountIdsSince(since));
+            touched.addAll(bankTransactionRepository.findCreditAccountIdsSince(since));
+            List<Long> ids = new ArrayList<>(touched);
+            for (int i = 0; i < ids.size(); i += chunkSize) {
+                tasks.add(submit(run.getId(), ids.subList(i, Math.min(ids.size(), i + chunkSize))));
+            }
+        }
+        long accountsChecked = 0;
+        List<LedgerDiscrepancy> discrepancies = new ArrayList<>();
+        boolean failed = false;
+        for (ForkJoinTask<ChunkResult> task : tasks) {
+            try {
+                ChunkResult result = task.join();
+                accountsChecked += result.accounts();
+                discrepancies.addAll(result.discrepancies());
+            } catch (RuntimeException e) {
+                failed = true;
+                if (logger.isErrorEnabled()) {
+                    logger.error("Ledger reconciliation chunk error / Ошибка сверки счетов: {}", e.getMessage());
+                }
+            }
+        }
+        run.setAccountsChecked(accountsChecked);
+        run.setDiscrepancies(discrepancies.size());
+        // a failed run keeps the previous checkpoint, so the next pass re-checks everything it missed
+        run.setFinishedAt(failed ? null : LocalDateTime.now());
+        writeTemplate.executeWithoutResult(status -> {
+            reconciliationRunRepository.save(run);
+            ledgerDiscrepancyRepository.saveAll(discrepancies);
+        });
+        if (!discrepancies.isEmpty() && logger.isWarnEnabled()) {
+            logger.warn("Ledger discrepancies found / Обнаружены расхождения по счетам: {} (run {})",
+                    discrepancies.size(), run.getId());
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Ledger reconciliation finished / Сверка счетов завершена: {} accounts since {} in {} ms",
+                    accountsChecked, since, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        if (failed) {
+            throw new AppRuntimeException("Ledger reconciliation failed / Ошибка сверки счетов, run " + run.getId());
+        }
+        return toReport(run, discrepancies);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private ForkJoinTask<ChunkResult> submit(Long runId, List<Long> ids) {
+        return pool.submit(() -> snapshotTemplate.execute(status -> compare(runId, ids)));
+    }
+
+    private ChunkResult compare(Long runId, List<Long> ids) {
+        Map<Long, BigDecimal> debits = toMap(bankTransactionRepository.findDebitTotalsByAccountIdIn(ids,
+                TransactionStatus.SUCCESS));
+        // a partitioned transfer between its debit and its credit has already left the source account
+        bankTransactionRepository.findDebitTotalsByAccountIdIn(ids, TransactionStatus.PROCESSING)
+                .forEach(debit -> debits.merge(debit.getAccountId(), debit.getAmount(), BigDecimal::add));
+        Map<Long, BigDecimal> credits = toMap(bankTransactionRepository.findCreditTotalsByAccountIdIn(ids,
+                TransactionStatus.SUCCESS));
+        Map<Long, BigDecimal> slots = toMap(balanceSlotRepository.findTotalsByAccountIdIn(ids));
+        Map<Long, LedgerCarryForward> archived = new HashMap<>();
+        for (LedgerCarryForward carryForward : ledgerCarryForwardRepository.findByAccountIdIn(ids)) {
+            archived.put(carryForward.getAccountId(), carryForward);
+        }
+        List<AccountLedgerDto> accounts = bankAccountRepository.findLedgerByIdIn(ids);
+        List<LedgerDiscrepancy> discrepancies = new ArrayList<>();
+        for (AccountLedgerDto account : accounts) {
+            Long id = account.getAccountId();
+            BigDecimal balance = account.getBalance().add(slots.getOrDefault(id, BigDecimal.ZERO));
+            LedgerCarryForward carryForward = archived.get(id);
+            BigDecimal opening = carryForward == null ? account.getInitialBalance()
+                    : carryForward.openingBalance(account.getInitialBalance());
+            BigDecimal expected = opening
+                    .add(credits.getOrDefault(id, BigDecimal.ZERO))
+                    .subtract(debits.getOrDefault(id, BigDecimal.ZERO));
+            if (balance.compareTo(expected) != 0) {
+                discrepancies.add(new LedgerDiscrepancy(runId, id, balance, expected));
+            }
+        }
+        return new ChunkResult(accounts.size(), discrepancies);
+    }
+
+    private ReconciliationReportDto toReport(ReconciliationRun run) {
+        return toReport(run, ledgerDiscrepancyRepository.findByRunIdOrderByAccountId(run.getId()));
+    }
+
+    private static ReconciliationReportDto toReport(ReconciliationRun run, List<LedgerDiscrepancy> discrepancies) {
+        List<LedgerDiscrepancyDto> items = discrepancies.stream()
+                .map(d -> new LedgerDiscrepancyDto(d.getAccountId(), d.getBalance(), d.getExpectedBalance(),
+                        d.getBalance().subtract(d.getExpectedBalance())))
+                .toList();
+        return new ReconciliationReportDto(run.getId(), run.isFullScan(), run.getSince(), run.getStartedAt(),
+                run.getFinishedAt(), run.getAccountsChecked() == null ? 0 : run.getAccountsChecked(), items);
+    }
+
+    private static Map<Long, BigDecimal> toMap(List<AccountAmountDto> amounts) {
+        Map<Long, BigDecimal> map = new HashMap<>(amounts.size() * 2);
+        for (AccountAmountDto amount : amounts) {
+            map.put(amount.getAccountId(), amount.getAmount());
+        }
+        return map;
+    }
+
+    private record ChunkResult(int accounts, List<LedgerDiscrepancy> discrepancies) {
+    }
+}
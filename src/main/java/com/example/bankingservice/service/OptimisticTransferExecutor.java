@@ -0,0 +1,108 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.dto.RetryStatsDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class OptimisticTransferExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticTransferExecutor.class);
+    private static final int TRACKED_ACCOUNTS_LIMIT = 10_000;
+    private static final int HOTTEST_ACCOUNTS_LIMIT = 20;
+    private final BankTransactionService bankTransactionService;
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder giveUps = new LongAdder();
+    private final Map<Long, AccountStats> accountStats = new ConcurrentHashMap<>();
+
+    public OptimisticTransferExecutor(BankTransactionService bankTransactionService,
+                                      @Value("${bank.transfer.max-retries:5}") int maxRetries,
+                                      @Value("${bank.transfer.backoff-millis:10}") long backoffMillis,
+                                      @Value("${bank.transfer.max-backoff-millis:500}") long maxBackoffMillis) {
+        this.bankTransactionService = bankTransactionService;
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public boolean transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        transfers.increment();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return bankTransactionService.transferOptimistic(fromAccountId, toAccountId, amount);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                Long conflictId = e.getPersistentClass() == BankAccount.class && e.getIdentifier() instanceof Long id
+                        ? id : fromAccountId;
+                conflicts.increment();
+                statsOf(conflictId).conflicts.increment();
+                if (attempt >= maxRetries) {
+                    giveUps.increment();
+                    statsOf(conflictId).giveUps.increment();
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("Transfer abandoned after {} retries / Перевод отменен после {} попыток: {} -> {}",
+                                attempt, attempt, fromAccountId, toAccountId);
+                    }
+                    throw new AppRuntimeException("Account is busy, try again later / Счет занят, повторите позже");
+                }
+                retries.increment();
+                statsOf(conflictId).retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public RetryStatsDto getStats() {
+        List<RetryStatsDto.AccountRetryStatsDto> hottest = accountStats.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, AccountStats> e) -> e.getValue().conflicts.sum())
+                        .reversed())
+                .limit(HOTTEST_ACCOUNTS_LIMIT)
+                .map(e -> new RetryStatsDto.AccountRetryStatsDto(e.getKey(), e.getValue().conflicts.sum(),
+                        e.getValue().retries.sum(), e.getValue().giveUps.sum()))
+                .toList();
+        return new RetryStatsDto(transfers.sum(), conflicts.sum(), retries.sum(), giveUps.sum(), hottest);
+    }
+
+    private AccountStats statsOf(Long accountId) {
+        AccountStats stats = accountStats.get(accountId);
+        if (stats == null) {
+            if (accountStats.size() >= TRACKED_ACCOUNTS_LIMIT) {
+                accountStats.clear();
+            }
+            stats = accountStats.computeIfAbsent(accountId, id -> new AccountStats());
+        }
+        return stats;
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppRuntimeException("Transfer interrupted / Перевод прерван");
+        }
+    }
+
+    private static final class AccountStats {
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder giveUps = new LongAdder();
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.PartitionStatsDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class PartitionedAccountExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedAccountExecutor.class);
+    private final BankTransactionService bankTransactionService;
+    private final Partition[] partitions;
+    private final int queueCapacity;
+    private final long shutdownMillis;
+    private final boolean enabled;
+    private volatile boolean running;
+
+    public PartitionedAccountExecutor(BankTransactionService bankTransactionService,
+                                      @Value("${bank.partitions.count:0}") int partitionCount,
+                                      @Value("${bank.partitions.capacity:10000}") int queueCapacity,
+                                      @Value("${bank.partitions.shutdown-millis:5000}") long shutdownMillis,
+                                      @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode) {
+        this.bankTransactionService = bankTransactionService;
+        this.queueCapacity = queueCapacity;
+        this.shutdownMillis = shutdownMillis;
+        this.enabled = transferMode == TransferMode.PARTITIONED;
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i, queueCapacity);
+        }
+    }
+
+    // debit legs still PROCESSING lost their credit in a crash or a shutdown; the client never got an answer for
+    // them, so the funds are returned before the partitions take new transfers
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int refunded = 0;
+        for (String transactionReference : bankTransactionService.getStartedTransferReferences()) {
+            try {
+                if (bankTransactionService.refundTransfer(transactionReference)) {
+                    refunded++;
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                if (logger.isErrorEnabled()) {
+                    logger.error("Refund error / Ошибка возврата средств {}: {}", transactionReference,
+                            e.getMessage());
+                }
+            }
+            if (logger.isErrorEnabled()) {
+                logger.error("Funds not returned / Средства не возвращены {}", transactionReference);
+            }
+        }
+        if (refunded > 0 && logger.isInfoEnabled()) {
+            logger.info("Interrupted transfers refunded / Возвращены средства прерванных переводов: {}", refunded);
+        }
+        for (Partition partition : partitions) {
+            partition.thread.start();
+        }
+        running = true;
+    }
+
+    // A transfer holds a permit of each partition it touches until its result completes, and it has at most one
+    // message queued at a time, so no queue ever holds more messages than it has permits and the credit and refund
+    // sends of an admitted transfer always fit.
+    public CompletableFuture<Boolean> transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (!enabled) {
+            throw new AppRuntimeException("Partitioned executor is used only when bank.transfer.mode=PARTITIONED / " +
+                    "Секционированный исполнитель используется только в режиме PARTITIONED");
+        }
+        if (!running) {
+            throw new AppRuntimeException("Service is stopping / Сервис останавливается");
+        }
+        Partition source = partitionOf(fromAccountId);
+        Partition target = partitionOf(toAccountId);
+        if (!source.permits.tryAcquire()) {
+            throw new AppRuntimeException("Account queue is full, try again later / Очередь счета переполнена");
+        }
+        if (source != target && !target.permits.tryAcquire()) {
+            source.permits.release();
+            throw new AppRuntimeException("Account queue is full, try again later / Очередь счета переполнена");
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        result.whenComplete((transferred, e) -> {
+            source.permits.release();
+            if (source != target) {
+                target.permits.release();
+            }
+        });
+        if (source == target) {
+            source.send(result, () -> result.complete(bankTransactionService.transfer(fromAccountId, toAccountId,
+                    amount)));
+            return result;
+        }
+        source.send(result, () -> {
+            String transactionReference = bankTransactionService.beginTransfer(fromAccountId, amount);
+            if (transactionReference == null) {
+                result.complete(false);
+                return;
+            }
+            target.send(result, () -> credit(source, transactionReference, fromAccountId, toAccountId, amount,
+                    result));
+        });
+        return result;
+    }
+
+    public List<PartitionStatsDto> getStats() {
+        List<PartitionStatsDto> stats = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            long processed = partition.processed.sum();
+            stats.add(new PartitionStatsDto(partition.index, partition.queue.size(), processed,
+                    processed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(partition.latencyNanos.sum() / processed),
+                    TimeUnit.NANOSECONDS.toMicros(partition.maxLatencyNanos.get())));
+        }
+        return stats;
+    }
+
+    // New transfers are refused while the admitted ones finish; whatever is still queued when the wait runs out is
+    // failed, and a debit leg it leaves PROCESSING is refunded by the next start.
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownMillis);
+        try {
+            while (!isIdle() && System.nanoTime() - deadline < 0) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Partition partition : partitions) {
+            partition.thread.interrupt();
+        }
+        int failed = 0;
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Message> left = new ArrayList<>();
+            partition.queue.drainTo(left);
+            for (Message message : left) {
+                message.result.completeExceptionally(new AppRuntimeException(
+                        "Service is stopping, transfer not completed / Сервис останавливается, перевод не завершен"));
+            }
+            failed += left.size();
+        }
+        if (failed > 0 && logger.isWarnEnabled()) {
+            logger.warn("Transfers failed on shutdown / Переводы прерваны при остановке: {}", failed);
+        }
+    }
+
+    private boolean isIdle() {
+        for (Partition partition : partitions) {
+            if (partition.permits.availablePermits() < queueCapacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void credit(Partition source, String transactionReference, Long fromAccountId, Long toAccountId,
+                        BigDecimal amount, CompletableFuture<Boolean> result) {
+        boolean credited;
+        try {
+            credited = bankTransactionService.settleTransfer(transactionReference, toAccountId);
+        } catch (RuntimeException e) {
+            credited = false;
+            if (logger.isErrorEnabled()) {
+                logger.error("Credit error / Ошибка зачисления {}: {} -> {} {}: {}", transactionReference,
+                        fromAccountId, toAccountId, amount, e.getMessage());
+            }
+        }
+        if (credited) {
+            result.complete(true);
+            return;
+        }
+        if (logger.isWarnEnabled()) {
+            logger.warn("Credit failed, returning funds / Ошибка зачисления, возврат средств {}: {} -> {} {}",
+                    transactionReference, fromAccountId, toAccountId, amount);
+        }
+        source.send(result, () -> refund(transactionReference, fromAccountId, toAccountId, amount, result));
+    }
+
+    // A refund marks the transfer FAILED; if it cannot be made, the debit stays PROCESSING and the next start
+    // tries again.
+    private void refund(String transactionReference, Long fromAccountId, Long toAccountId, BigDecimal amount,
+                        CompletableFuture<Boolean> result) {
+        boolean refunded = false;
+        try {
+            refunded = bankTransactionService.refundTransfer(transactionReference);
+        } catch (RuntimeException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Refund error / Ошибка возврата средств {}: {} -> {} {}: {}", transactionReference,
+                        fromAccountId, toAccountId, amount, e.getMessage());
+            }
+        } finally {
+            if (!refunded && logger.isErrorEnabled()) {
+                logger.error("Funds not returned / Средства не возвращены {}: {} -> {} {}", transactionReference,
+                        fromAccountId, toAccountId, amount);
+            }
+            result.completeExceptionally(refunded
+                    ? new AppRuntimeException("Target account not found / Счет получателя не найден: " + toAccountId)
+                    : new AppRuntimeException("Transfer failed, funds not returned / Перевод не выполнен, " +
+                    "средства не возвращены: " + transactionReference));
+        }
+    }
+
+    private Partition partitionOf(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return partitions[Math.floorMod((int) (h ^ (h >>> 32)), partitions.length)];
+    }
+
+    private static final class Partition {
+        private final int index;
+        private final BlockingQueue<Message> queue;
+        private final Semaphore permits;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final Thread thread;
+
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+            this.permits = new Semaphore(capacity);
+            this.thread = new Thread(this::run, "account-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void send(CompletableFuture<Boolean> result, Runnable task) {
+            if (!queue.offer(new Message(result, task, System.nanoTime()))) {
+                result.completeExceptionally(new AppRuntimeException(
+                        "Account queue is full, try again later / Очередь счета переполнена"));
+            }
+        }
+
+        private void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Message message;
+                try {
+                    message = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                try {
+                    message.task.run();
+                } catch (RuntimeException e) {
+                    message.result.completeExceptionally(e);
+                }
+                long latency = System.nanoTime() - message.enqueuedAt;
+                processed.increment();
+                latencyNanos.add(latency);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        }
+    }
+
+    private record Message(CompletableFuture<Boolean> result, Runnable task, long enqueuedAt) {
+    }
+}
@@ -2,8 +2,11 @@ package com.example.bankingservice.service;
 
 import com.example.bankingservice.model.Phone;
 import com.example.bankingservice.repository.PhoneRepository;
+import com.example.bankingservice.service.validation.DuplicateValueErrors;
+import com.example.bankingservice.service.validation.UniquenessFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +19,11 @@ import java.util.Optional;
 public class PhoneService {
     private static final Logger logger = LoggerFactory.getLogger(PhoneService.class);
     private final PhoneRepository phoneRepository;
+    private final UniquenessFilter uniquenessFilter;
 
-    public PhoneService(PhoneRepository phoneRepository) {
+    public PhoneService(PhoneRepository phoneRepository, UniquenessFilter uniquenessFilter) {
         this.phoneRepository = phoneRepository;
+        this.uniquenessFilter = uniquenessFilter;
     }
 
     public Optional<Phone> getPhoneById(Long id) {
@@ -31,7 +36,13 @@ public class PhoneService {
 
     @Transactional
     public Phone createPhone(Phone phone) {
-        Phone dbPhone = phoneRepository.save(phone);
+        Phone dbPhone;
+        try {
+            dbPhone = phoneRepository.saveAndFlush(phone);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, List.of(phone), List.of());
+        }
+        uniquenessFilter.put(UniquenessFilter.Kind.PHONE, dbPhone.getNumber());
         if (logger.isInfoEnabled()) {
             logger.info("Created phone / Создан телефон {}", dbPhone);
         }
@@ -40,7 +51,13 @@ public class PhoneService {
 
     @Transactional
     public List<Phone> createPhones(List<Phone> phones) {
-        List<Phone> dbPhones = phoneRepository.saveAll(phones);
+        List<Phone> dbPhones;
+        try {
+            dbPhones = phoneRepository.saveAllAndFlush(phones);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, phones, List.of());
+        }
+        dbPhones.forEach(saved -> uniquenessFilter.put(UniquenessFilter.Kind.PHONE, saved.getNumber()));
         if (logger.isInfoEnabled()) {
             logger.info("Created phones / Созданы телефоны {}", dbPhones);
         }
@@ -49,7 +66,13 @@ public class PhoneService {
 
     @Transactional
     public Optional<Phone> updatePhone(Long id, Phone updatedPhone) {
-        Optional<Phone> updated = phoneRepository.findById(id).map(oldPhone -> phoneRepository.save(updatedPhone));
+        Optional<Phone> updated;
+        try {
+            updated = phoneRepository.findById(id).map(oldPhone -> phoneRepository.saveAndFlush(updatedPhone));
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateValueErrors.map(e, List.of(updatedPhone), List.of());
+        }
+        updated.ifPresent(saved -> uniquenessFilter.put(UniquenessFilter.Kind.PHONE, saved.getNumber()));
         if (logger.isInfoEnabled()) {
             updated.ifPresent(n -> logger.info("Updated phone / Обновлен телефон {}", updated.get()));
         }
@@ -0,0 +1,114 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.ExportFormat;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@Transactional(readOnly = true)
+public class TransactionExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+    private static final String CSV_HEADER = "id,transactionReference,fromAccountId,toAccountId,amount,status,createdAt";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final ObjectWriter objectWriter;
+    private final int fetchSize;
+    private final int flushRows;
+
+    public TransactionExportService(BankTransactionRepository bankTransactionRepository,
+                                    ObjectProvider<ObjectMapper> objectMapper,
+                                    @Value("${bank.export.fetch-size:1000}") int fetchSize,
+                                    @Value("${bank.export.flush-rows:10000}") int flushRows) {
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.objectWriter = objectMapper.getIfAvailable(() -> JsonMapper.builder()
+                        .findAndAddModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build())
+                .writerFor(TransactionDto.class);
+        this.fetchSize = fetchSize;
+        this.flushRows = flushRows;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public long export(OutputStream output, ExportFormat format, LocalDateTime from, LocalDateTime to,
+                       TransactionStatus status) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (Stream<TransactionDto> transactions = bankTransactionRepository.streamTransactions(from, to, status,
+                fetchSize)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<TransactionDto> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionDto transaction = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, transaction);
+                } else {
+                    writer.write(objectWriter.writeValueAsString(transaction));
+                }
+                writer.write('\n');
+                if (++rows % flushRows == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        if (logger.isInfoEnabled()) {
+            logger.info("Transactions exported / Транзакции выгружены: {} rows as {} in {} ms", rows, format,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, TransactionDto transaction) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(csv(transaction.getTransactionReference()));
+        writer.write(',');
+        writer.write(transaction.getFromAccountId() == null ? "" : transaction.getFromAccountId().toString());
+        writer.write(',');
+        writer.write(transaction.getToAccountId() == null ? "" : transaction.getToAccountId().toString());
+        writer.write(',');
+        writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(transaction.getStatus() == null ? "" : transaction.getStatus().name());
+        writer.write(',');
+        writer.write(transaction.getCreatedAt() == null ? "" : transaction.getCreatedAt().toString());
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.bankingservice.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class TransactionPartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionService.class);
+    private static final String TABLE = "BankTransaction";
+    private static final String CARRY_FORWARD = "LedgerCarryForward";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int hotMonths;
+    private final String archiveSchema;
+
+    public record Plan(List<YearMonth> create, List<YearMonth> archive) {
+    }
+
+    public TransactionPartitionService(DataSource dataSource,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${bank.transaction-partitions.enabled:false}") boolean enabled,
+                                       @Value("${bank.transaction-partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${bank.transaction-partitions.hot-months:12}") int hotMonths,
+                                       @Value("${bank.transaction-partitions.archive-schema:archive}") String archiveSchema) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.hotMonths = hotMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Transaction partition maintenance failed / Ошибка обслуживания секций транзакций: {}",
+                        e.getMessage());
+            }
+        }
+    }
+
+    public Plan maintain() {
+        if (!enabled || !isPartitioned()) {
+            return new Plan(List.of(), List.of());
+        }
+        Plan plan = plan(YearMonth.now(), attachedPartitions());
+        for (YearMonth month : plan.create()) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + quote(partitionName(month)) + " PARTITION OF " +
+                    quote(TABLE) + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                    month.plusMonths(1).atDay(1) + "')");
+        }
+        if (!plan.archive().isEmpty()) {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + quote(archiveSchema));
+        }
+        for (YearMonth month : plan.archive()) {
+            String partition = quote(partitionName(month));
+            transactionTemplate.executeWithoutResult(status -> {
+                carryForward(partition, month.plusMonths(1).atDay(1).atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE " + quote(TABLE) + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + quote(archiveSchema));
+            });
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Transaction partitions maintained / Секции транзакций обслужены: created {}, archived {}",
+                    plan.create(), plan.archive());
+        }
+        return plan;
+    }
+
+    public Plan plan(YearMonth current, Collection<YearMonth> existing) {
+        Set<YearMonth> attached = new TreeSet<>(existing);
+        List<YearMonth> create = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            if (!attached.contains(current.plusMonths(i))) {
+                create.add(current.plusMonths(i));
+            }
+        }
+        YearMonth oldestHot = current.minusMonths(hotMonths);
+        List<YearMonth> archive = attached.stream().filter(month -> month.isBefore(oldestHot)).toList();
+        return new Plan(create, archive);
+    }
+
+    public static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(SUFFIX);
+    }
+
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return false;
+        }
+        List<String> kind = jdbcTemplate.queryForList("SELECT c.relkind::text FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relname = ? AND n.nspname = current_schema()", String.class, TABLE);
+        if (!kind.equals(List.of("p"))) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Table is not partitioned, run db/partition_bank_transaction.sql / " +
+                        "Таблица не секционирована: {}", TABLE);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private List<YearMonth> attachedPartitions() {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname::text FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                "WHERE p.relname = ? AND n.nspname = current_schema()", String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith(TABLE + "_")) {
+                try {
+                    months.add(YearMonth.parse(name.substring(TABLE.length() + 1), SUFFIX));
+                } catch (DateTimeParseException ignored) {
+                    // the default partition and foreign tables are left alone
+                }
+            }
+        }
+        return months;
+    }
+
+    // the totals of the archived rows stay in the live schema, so balances and reconciliation start from them
+    // instead of replaying rows that are no longer in the table
+    private void carryForward(String partition, LocalDateTime archivedBefore) {
+        jdbcTemplate.update("INSERT INTO " + quote(CARRY_FORWARD) + " (\"accountId\", \"debitTotal\", " +
+                "\"creditTotal\", \"archivedBefore\") " +
+                "SELECT \"accountId\", SUM(\"debit\"), SUM(\"credit\"), ? FROM (" +
+                "SELECT \"fromAccountId\" AS \"accountId\", \"amount\" AS \"debit\", 0 AS \"credit\" FROM " +
+                partition + " WHERE \"status\" = 'SUCCESS' AND \"fromAccountId\" IS NOT NULL UNION ALL " +
+                "SELECT \"toAccountId\", 0, \"amount\" FROM " + partition +
+                " WHERE \"status\" = 'SUCCESS' AND \"toAccountId\" IS NOT NULL) t GROUP BY \"accountId\" " +
+                "ON CONFLICT (\"accountId\") DO UPDATE SET " +
+                "\"debitTotal\" = " + quote(CARRY_FORWARD) + ".\"debitTotal\" + EXCLUDED.\"debitTotal\", " +
+                "\"creditTotal\" = " + quote(CARRY_FORWARD) + ".\"creditTotal\" + EXCLUDED.\"creditTotal\", " +
+                "\"archivedBefore\" = GREATEST(" + quote(CARRY_FORWARD) + ".\"archivedBefore\", " +
+                "EXCLUDED.\"archivedBefore\")", archivedBefore);
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
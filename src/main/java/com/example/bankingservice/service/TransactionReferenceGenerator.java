@@ -0,0 +1,124 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.ReferenceFormat;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class TransactionReferenceGenerator {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 26;
+    private static final int TIME_LENGTH = 10;
+    private static final long MAX_NODE_ID = 0xFFFFL;
+    private static final long THREAD_MASK = 0xFFFFFFL;
+    private static final long SEQUENCE_MASK = (1L << 40) - 1;
+    private final ReferenceFormat format;
+    private final long nodeId;
+    private final AtomicInteger threadIndexes = new AtomicInteger();
+    private final ThreadLocal<ThreadState> threadStates = ThreadLocal.withInitial(this::newThreadState);
+
+    public TransactionReferenceGenerator(@Value("${bank.reference.format:TIME_ORDERED}") ReferenceFormat format,
+                                         @Value("${bank.reference.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new AppRuntimeException("Reference node id must be between 0 and " + MAX_NODE_ID +
+                    " / Идентификатор узла должен быть от 0 до " + MAX_NODE_ID);
+        }
+        this.format = format;
+        this.nodeId = nodeId;
+    }
+
+    public String next() {
+        return toReference(nextId());
+    }
+
+    // the 128 bits of a reference, for callers that store references in binary form
+    public UUID nextId() {
+        if (format == ReferenceFormat.UUID) {
+            return UUID.randomUUID();
+        }
+        ThreadState state = threadStates.get();
+        long millis = Math.max(System.currentTimeMillis(), state.lastMillis);
+        state.lastMillis = millis;
+        state.sequence = (state.sequence + 1) & SEQUENCE_MASK;
+        return new UUID(millis << 16 | nodeId, state.threadIndex << 40 | state.sequence);
+    }
+
+    public String toReference(UUID id) {
+        if (format == ReferenceFormat.UUID) {
+            return id.toString();
+        }
+        return encode(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public String lowerBound(Instant time) {
+        return encode(time.toEpochMilli() << 16, 0).substring(0, TIME_LENGTH);
+    }
+
+    public Instant timestampOf(String reference) {
+        if (reference == null || reference.length() != LENGTH) {
+            throw new AppRuntimeException("Reference is not time-ordered / Ссылка не упорядочена по времени: " + reference);
+        }
+        long millis = 0;
+        for (int i = 0; i < TIME_LENGTH; i++) {
+            int value = indexOf(reference.charAt(i));
+            if (value < 0) {
+                throw new AppRuntimeException("Reference is not time-ordered / Ссылка не упорядочена по времени: " + reference);
+            }
+            millis = millis << 5 | value;
+        }
+        return Instant.ofEpochMilli(millis);
+    }
+
+    public Optional<Instant> findTimestamp(String reference) {
+        if (reference == null || reference.length() < LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(timestampOf(reference.substring(0, LENGTH)));
+        } catch (AppRuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ThreadState newThreadState() {
+        return new ThreadState(threadIndexes.getAndIncrement() & THREAD_MASK,
+                ThreadLocalRandom.current().nextLong(1L << 32));
+    }
+
+    private static String encode(long high, long low) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = low >>> 5 | high << 59;
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class ThreadState {
+        private final long threadIndex;
+        private long sequence;
+        private long lastMillis;
+
+        private ThreadState(long threadIndex, long sequence) {
+            this.threadIndex = threadIndex;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.JournalEntryDto;
+import com.example.bankingservice.model.dto.JournalStatsDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+@Service
+public class TransferJournal {
+    private static final Logger logger = LoggerFactory.getLogger(TransferJournal.class);
+    private static final int MAGIC = 0x42534A31;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 64;
+    private static final int CHECKSUM_OFFSET = 48;
+    private static final int WRITE_POSITION_OFFSET = 8;
+    private static final int FLUSHED_POSITION_OFFSET = 16;
+    private final BankTransactionService bankTransactionService;
+    private final HotAccountService hotAccountService;
+    private final AccountLockManager accountLockManager;
+    private final TransactionReferenceGenerator transactionReferenceGenerator;
+    private final boolean enabled;
+    private final Path path;
+    private final int capacity;
+    private final long syncNanos;
+    private final long flushMillis;
+    private final int flushBatch;
+    private final Map<Long, AccountState> accounts = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+    private final Object syncMonitor = new Object();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder acks = new LongAdder();
+    private final LongAdder ackNanos = new LongAdder();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private volatile int writePosition;
+    private volatile int flushedPosition;
+    private volatile long writtenSequence;
+    private volatile long syncedSequence;
+    private volatile boolean running;
+    private Thread syncer;
+    private ScheduledExecutorService flusher;
+
+    public TransferJournal(BankTransactionService bankTransactionService,
+                           HotAccountService hotAccountService,
+                           AccountLockManager accountLockManager,
+                           TransactionReferenceGenerator transactionReferenceGenerator,
+                           @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode,
+                           @Value("${bank.journal.path:./data/transfers.journal}") String path,
+                           @Value("${bank.journal.size-mb:64}") int sizeMb,
+                           @Value("${bank.journal.sync-micros:200}") long syncMicros,
+                           @Value("${bank.journal.flush-millis:500}") long flushMillis,
+                           @Value("${bank.journal.flush-batch:1000}") int flushBatch) {
+        this.bankTransactionService = bankTransactionService;
+        this.hotAccountService = hotAccountService;
+        this.accountLockManager = accountLockManager;
+        this.transactionReferenceGenerator = transactionReferenceGenerator;
+        this.enabled = transferMode == TransferMode.JOURNAL;
+        this.path = Path.of(path);
+        this.capacity = sizeMb * 1024 * 1024;
+        this.syncNanos = TimeUnit.MICROSECONDS.toNanos(syncMicros);
+        this.flushMillis = flushMillis;
+        this.flushBatch = flushBatch;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(WRITE_POSITION_OFFSET, HEADER_SIZE);
+            buffer.putLong(FLUSHED_POSITION_OFFSET, HEADER_SIZE);
+            buffer.force();
+        }
+        flushedPosition = (int) buffer.getLong(FLUSHED_POSITION_OFFSET);
+        writePosition = (int) buffer.getLong(WRITE_POSITION_OFFSET);
+        for (int position = flushedPosition; position < writePosition; position += RECORD_SIZE) {
+            if (read(position) == null) {
+                logger.warn("Journal truncated at a torn record / Журнал обрезан на поврежденной записи: {}", position);
+                writePosition = position;
+                buffer.putLong(WRITE_POSITION_OFFSET, position);
+                break;
+            }
+        }
+        if (writePosition > flushedPosition && logger.isInfoEnabled()) {
+            logger.info("Replaying unflushed journal records / Воспроизведение записей журнала: {}",
+                    (writePosition - flushedPosition) / RECORD_SIZE);
+        }
+        while (flushedPosition < writePosition) {
+            flush();
+        }
+        running = true;
+        syncer = new Thread(this::sync, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        syncer.interrupt();
+        buffer.force();
+        channel.close();
+    }
+
+    public boolean transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (!running) {
+            throw new AppRuntimeException("Transfer journal is disabled / Журнал переводов отключен");
+        }
+        long cents = toCents(amount);
+        long start = System.nanoTime();
+        long sequence;
+        try (AccountLockManager.AccountLock ignored = accountLockManager.lock(fromAccountId, toAccountId)) {
+            AccountState source = stateOf(fromAccountId);
+            AccountState target = stateOf(toAccountId);
+            if (source.balance.compareTo(amount) < 0) {
+                return false;
+            }
+            sequence = append(transactionReferenceGenerator.nextId(), fromAccountId, toAccountId, cents);
+            source.balance = source.balance.subtract(amount);
+            source.pending++;
+            target.balance = target.balance.add(amount);
+            target.pending++;
+        }
+        awaitSync(sequence);
+        acks.increment();
+        ackNanos.add(System.nanoTime() - start);
+        return true;
+    }
+
+    public JournalStatsDto getStats() {
+        if (!running) {
+            return new JournalStatsDto(false, 0, 0, 0, 0, 0, 0, 0);
+        }
+        int flushed = flushedPosition;
+        int written = writePosition;
+        long lag = 0;
+        if (written > flushed) {
+            Record oldest = read(flushed);
+            lag = oldest == null ? 0 : System.currentTimeMillis() - oldest.timestamp;
+        }
+        long ackCount = acks.sum();
+        return new JournalStatsDto(true, (capacity - HEADER_SIZE) / RECORD_SIZE, writtenSequence,
+                (written - flushed) / RECORD_SIZE, syncs.sum(),
+                ackCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(ackNanos.sum() / ackCount), lag, accounts.size());
+    }
+
+    private AccountState stateOf(Long accountId) {
+        AccountState state = accounts.get(accountId);
+        if (state == null) {
+            BigDecimal balance = hotAccountService.getBalance(accountId)
+                    .orElseThrow(() -> new AppRuntimeException("Account not found / Счет не найден: " + accountId));
+            state = new AccountState(balance);
+            accounts.put(accountId, state);
+        }
+        return state;
+    }
+
+    private long toCents(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new AppRuntimeException("Amount must be positive / Сумма должна быть положительной");
+        }
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new AppRuntimeException("Amount has too many decimal places / Слишком много знаков после запятой");
+        }
+    }
+
+    private long append(UUID reference, Long fromAccountId, Long toAccountId, long cents) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(reference.getMostSignificantBits())
+                .putLong(reference.getLeastSignificantBits())
+                .putLong(fromAccountId)
+                .putLong(toAccountId)
+                .putLong(cents)
+                .putLong(System.currentTimeMillis());
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, CHECKSUM_OFFSET);
+        record.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+        synchronized (appendLock) {
+            int position = writePosition;
+            if (position + RECORD_SIZE > capacity) {
+                throw new AppRuntimeException("Transfer journal is full, try again later / Журнал переводов заполнен");
+            }
+            buffer.put(position, record.array());
+            writePosition = position + RECORD_SIZE;
+            buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+            return ++writtenSequence;
+        }
+    }
+
+    private Record read(int position) {
+        byte[] bytes = new byte[RECORD_SIZE];
+        buffer.get(position, bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, CHECKSUM_OFFSET);
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        if (record.getInt(CHECKSUM_OFFSET) != (int) crc.getValue()) {
+            return null;
+        }
+        return new Record(new UUID(record.getLong(), record.getLong()), record.getLong(), record.getLong(),
+                record.getLong(), record.getLong());
+    }
+
+    private void awaitSync(long sequence) {
+        synchronized (syncMonitor) {
+            while (syncedSequence < sequence) {
+                try {
+                    syncMonitor.wait(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AppRuntimeException("Transfer interrupted / Перевод прерван");
+                }
+            }
+        }
+    }
+
+    private void sync() {
+        while (running) {
+            long target = writtenSequence;
+            if (target > syncedSequence) {
+                buffer.force();
+                syncs.increment();
+                synchronized (syncMonitor) {
+                    syncedSequence = target;
+                    syncMonitor.notifyAll();
+                }
+            } else {
+                LockSupport.parkNanos(syncNanos);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            while (running && flushedPosition < writePosition) {
+                flush();
+            }
+        } catch (RuntimeException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Journal flush error / Ошибка сброса журнала: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void flush() {
+        int from = flushedPosition;
+        int to = Math.min(writePosition, from + flushBatch * RECORD_SIZE);
+        List<JournalEntryDto> entries = new ArrayList<>((to - from) / RECORD_SIZE);
+        Map<Long, Integer> touched = new HashMap<>();
+        for (int position = from; position < to; position += RECORD_SIZE) {
+            Record record = read(position);
+            entries.add(new JournalEntryDto(transactionReferenceGenerator.toReference(record.reference),
+                    record.fromAccountId, record.toAccountId, BigDecimal.valueOf(record.cents, 2)));
+            touched.merge(record.fromAccountId, 1, Integer::sum);
+            touched.merge(record.toAccountId, 1, Integer::sum);
+        }
+        bankTransactionService.applyJournalEntries(entries);
+        flushedPosition = to;
+        buffer.putLong(FLUSHED_POSITION_OFFSET, to);
+        buffer.force();
+        for (Map.Entry<Long, Integer> entry : touched.entrySet()) {
+            try (AccountLockManager.AccountLock ignored = accountLockManager.lock(entry.getKey())) {
+                AccountState state = accounts.get(entry.getKey());
+                if (state != null) {
+                    state.pending -= entry.getValue();
+                    if (state.pending <= 0) {
+                        accounts.remove(entry.getKey());
+                    }
+                }
+            }
+        }
+        synchronized (appendLock) {
+            if (flushedPosition == writePosition && writePosition > HEADER_SIZE) {
+                writePosition = HEADER_SIZE;
+                flushedPosition = HEADER_SIZE;
+                buffer.putLong(WRITE_POSITION_OFFSET, HEADER_SIZE);
+                buffer.putLong(FLUSHED_POSITION_OFFSET, HEADER_SIZE);
+                buffer.force();
+            }
+        }
+    }
+
+    private static final class AccountState {
+        private BigDecimal balance;
+        private long pending;
+
+        private AccountState(BigDecimal balance) {
+            this.balance = balance;
+        }
+    }
+
+    private record Record(UUID reference, Long fromAccountId, Long toAccountId, long cents, long timestamp) {
+    }
+}
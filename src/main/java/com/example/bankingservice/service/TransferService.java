@@ -0,0 +1,112 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.BatchMode;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+public class TransferService {
+    private static final Logger logger = LoggerFactory.getLogger(TransferService.class);
+    private final BankTransactionService bankTransactionService;
+    private final OptimisticTransferExecutor optimisticTransferExecutor;
+    private final GroupCommitTransferPipeline groupCommitTransferPipeline;
+    private final PartitionedAccountExecutor partitionedAccountExecutor;
+    private final TransferJournal transferJournal;
+    private final TransferMode transferMode;
+    private final int batchMaxEntries;
+    private final int batchChunkSize;
+
+    public TransferService(BankTransactionService bankTransactionService,
+                           OptimisticTransferExecutor optimisticTransferExecutor,
+                           GroupCommitTransferPipeline groupCommitTransferPipeline,
+                           PartitionedAccountExecutor partitionedAccountExecutor,
+                           TransferJournal transferJournal,
+                           @Value("${bank.transfer.mode:ATOMIC}") TransferMode transferMode,
+                           @Value("${bank.transfer.batch-max-entries:10000}") int batchMaxEntries,
+                           @Value("${bank.transfer.batch-chunk-size:1000}") int batchChunkSize) {
+        this.bankTransactionService = bankTransactionService;
+        this.optimisticTransferExecutor = optimisticTransferExecutor;
+        this.groupCommitTransferPipeline = groupCommitTransferPipeline;
+        this.partitionedAccountExecutor = partitionedAccountExecutor;
+        this.transferJournal = transferJournal;
+        this.transferMode = transferMode;
+        this.batchMaxEntries = batchMaxEntries;
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    public boolean transfer(BankAccount fromAccount, BankAccount toAccount, BigDecimal amount) {
+        return switch (transferMode) {
+            case ATOMIC -> bankTransactionService.internalFundTransfer(fromAccount, toAccount, amount);
+            case OPTIMISTIC -> optimisticTransferExecutor.transfer(fromAccount.getId(), toAccount.getId(), amount);
+            case BATCHED -> isSuccessful(await(groupCommitTransferPipeline
+                    .submit(new TransferEntryDto(fromAccount.getId(), toAccount.getId(), amount))));
+            case PARTITIONED -> await(partitionedAccountExecutor
+                    .transfer(fromAccount.getId(), toAccount.getId(), amount));
+            case JOURNAL -> transferJournal.transfer(fromAccount.getId(), toAccount.getId(), amount);
+        };
+    }
+
+    public List<TransferResultDto> transferBatch(List<TransferEntryDto> entries, BatchMode mode) {
+        if (entries.size() > batchMaxEntries) {
+            throw new AppRuntimeException("Too many transfers in a batch / Слишком много переводов в пакете: " +
+                    entries.size() + " > " + batchMaxEntries);
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == null) {
+                throw new AppRuntimeException("Empty transfer in a batch / Пустой перевод в пакете: #" + (i + 1));
+            }
+        }
+        if (mode == BatchMode.ALL_OR_NOTHING) {
+            return bankTransactionService.applyTransfers(entries, true);
+        }
+        List<TransferResultDto> results = new ArrayList<>(entries.size());
+        for (int from = 0; from < entries.size(); from += batchChunkSize) {
+            List<TransferEntryDto> chunk = entries.subList(from, Math.min(entries.size(), from + batchChunkSize));
+            try {
+                results.addAll(bankTransactionService.applyTransfers(chunk, false));
+            } catch (RuntimeException e) {
+                // a failed chunk is rolled back as a whole; the chunks before and after it stay applied
+                if (logger.isErrorEnabled()) {
+                    logger.error("Transfer chunk error / Ошибка пакета переводов {}-{}: {}", from + 1,
+                            from + chunk.size(), e.getMessage());
+                }
+                for (TransferEntryDto entry : chunk) {
+                    results.add(TransferResultDto.failure(entry, e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new AppRuntimeException(e.getCause().getMessage());
+        }
+    }
+
+    private boolean isSuccessful(TransferResultDto result) {
+        if (result.getStatus() == TransactionStatus.SUCCESS) {
+            return true;
+        }
+        if (BankTransactionService.INSUFFICIENT_FUNDS.equals(result.getMessage())) {
+            return false;
+        }
+        throw new AppRuntimeException(result.getMessage());
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.model.dto.ImportErrorDto;
+import com.example.bankingservice.model.dto.ImportProgressDto;
+import com.example.bankingservice.service.validation.UserBatchValidator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final int MAX_ERRORS = 1000;
+    private static final int MAX_JOBS = 20;
+    private final UserService userService;
+    private final UserBatchValidator userBatchValidator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, ImportJob> jobs = new ConcurrentSkipListMap<>();
+
+    public UserImportService(UserService userService, UserBatchValidator userBatchValidator,
+                             ObjectProvider<ObjectMapper> objectMapper,
+                             @Value("${bank.import.chunk-size:1000}") int chunkSize) {
+        this.userService = userService;
+        this.userBatchValidator = userBatchValidator;
+        this.objectMapper = objectMapper.getIfAvailable(() -> JsonMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build());
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportProgressDto importUsers(InputStream input) {
+        ImportJob job = new ImportJob(jobIds.incrementAndGet());
+        jobs.put(job.id, job);
+        while (jobs.size() > MAX_JOBS) {
+            jobs.remove(jobs.keySet().iterator().next());
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("User import started / Импорт пользователей запущен: job {}", job.id);
+        }
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (rows.hasNextValue()) {
+                JsonNode node = rows.nextValue();
+                long rowNumber = job.rowsRead.incrementAndGet();
+                Row row = parse(job, rowNumber, node);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    commit(job, chunk);
+                    chunk.clear();
+                }
+            }
+            commit(job, chunk);
+        } catch (IOException | RuntimeException e) {
+            job.failure = e.getMessage();
+            if (logger.isErrorEnabled()) {
+                logger.error("User import stopped / Импорт пользователей остановлен: job {} row {}: {}",
+                        job.id, job.rowsRead.get(), e.getMessage());
+            }
+        }
+        job.finishedNanos = System.nanoTime();
+        job.finishedAt = LocalDateTime.now();
+        if (logger.isInfoEnabled()) {
+            logger.info("User import finished / Импорт пользователей завершен: job {}, imported {}, failed {}",
+                    job.id, job.imported.get(), job.failed.get());
+        }
+        return job.toDto();
+    }
+
+    public Optional<ImportProgressDto> getProgress(Long jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toDto);
+    }
+
+    public List<ImportProgressDto> getJobs() {
+        return jobs.values().stream().map(ImportJob::toDto).toList();
+    }
+
+    private Row parse(ImportJob job, long rowNumber, JsonNode node) {
+        User user;
+        try {
+            user = objectMapper.treeToValue(node, User.class);
+        } catch (IOException | IllegalArgumentException e) {
+            job.reject(rowNumber, node.path("login").asText(null), "Malformed user / Некорректный пользователь: " +
+                    e.getMessage());
+            return null;
+        }
+        return new Row(rowNumber, user);
+    }
+
+    private List<Row> validate(ImportJob job, List<Row> chunk) {
+        Map<Integer, List<String>> rejected = userBatchValidator.check(chunk.stream().map(Row::user).toList())
+                .stream()
+                .collect(Collectors.groupingBy(UserBatchValidator.Violation::index,
+                        Collectors.mapping(UserBatchValidator.Violation::message, Collectors.toList())));
+        if (rejected.isEmpty()) {
+            return chunk;
+        }
+        List<Row> valid = new ArrayList<>(chunk.size() - rejected.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            List<String> messages = rejected.get(i);
+            if (messages == null) {
+                valid.add(chunk.get(i));
+            } else {
+                job.reject(chunk.get(i).number, chunk.get(i).user.getLogin(), String.join("; ", messages));
+            }
+        }
+        return valid;
+    }
+
+    private void commit(ImportJob job, List<Row> rows) {
+        List<Row> chunk = rows.isEmpty() ? rows : validate(job, rows);
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            userService.createUsers(chunk.stream().map(Row::user).toList());
+            job.imported.addAndGet(chunk.size());
+        } catch (RuntimeException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Import chunk failed, saving row by row / Ошибка пакета импорта: {}", e.getMessage());
+            }
+            for (Row row : chunk) {
+                row.user.setId(null);
+                row.user.getAccount().setId(null);
+                row.user.getPhones().forEach(phone -> phone.setId(null));
+                row.user.getEmails().forEach(email -> email.setId(null));
+                try {
+                    userService.createUser(row.user);
+                    job.imported.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    job.reject(row.number, row.user.getLogin(), ex.getMessage());
+                }
+            }
+        }
+        job.chunks.incrementAndGet();
+    }
+
+    private record Row(long number, User user) {
+    }
+
+    private static final class ImportJob {
+        private final long id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String failure;
+
+        private ImportJob(long id) {
+            this.id = id;
+        }
+
+        private void reject(long row, String login, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(new ImportErrorDto(row, login, message));
+                }
+            }
+        }
+
+        private ImportProgressDto toDto() {
+            LocalDateTime finished = finishedAt;
+            long end = finished == null ? System.nanoTime() : finishedNanos;
+            double seconds = Duration.ofNanos(end - startedNanos).toMillis() / 1000.0;
+            List<ImportErrorDto> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new ImportProgressDto(id, finished == null, startedAt, finished, rowsRead.get(), imported.get(),
+                    failed.get(), chunks.get(), seconds == 0 ? 0 : imported.get() / seconds, failure, errorsCopy);
+        }
+    }
+}
@@ -2,35 +2,81 @@ package com.example.bankingservice.service;
 
 import com.example.bankingservice.model.BankAccount;
 import com.example.bankingservice.model.User;
+import com.example.bankingservice.model.dto.AccountSummaryDto;
 import com.example.bankingservice.model.dto.PageRequestDto;
+import com.example.bankingservice.model.dto.UserDto;
+import com.example.bankingservice.model.dto.UserValueDto;
 import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.EmailRepository;
+import com.example.bankingservice.repository.PhoneRepository;
 import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.service.validation.DuplicateValueErrors;
+import com.example.bankingservice.service.validation.UniquenessFilter;
 import com.example.bankingservice.util.AppRuntimeException;
+import com.example.bankingservice.util.PageCursor;
+import jakarta.persistence.EntityManager;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 @Getter
 @Transactional(readOnly = true)
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final int MAX_SLICE_SIZE = 1000;
+    private static final Map<String, Function<String, Object>> SORTABLE_COLUMNS = Map.of(
+            "id", Long::valueOf,
+            "login", value -> value,
+            "username", value -> value,
+            "dateOfBirth", LocalDate::parse);
     private final UserRepository userRepository;
     private final BankAccountRepository bankAccountRepository;
+    private final PhoneRepository phoneRepository;
+    private final EmailRepository emailRepository;
+    private final EntityManager entityManager;
+    private final UniquenessFilter uniquenessFilter;
+    private final InterestCalculator interestCalculator;
+    private final HotAccountService hotAccountService;
+    private final int flushSize;
 
-    public UserService(UserRepository userRepository, BankAccountRepository bankAccountRepository) {
+    public UserService(UserRepository userRepository, BankAccountRepository bankAccountRepository,
+                       PhoneRepository phoneRepository, EmailRepository emailRepository,
+                       EntityManager entityManager, UniquenessFilter uniquenessFilter,
+                       InterestCalculator interestCalculator, HotAccountService hotAccountService,
+                       @Value("${bank.import.flush-size:1000}") int flushSize) {
         this.userRepository = userRepository;
         this.bankAccountRepository = bankAccountRepository;
+        this.phoneRepository = phoneRepository;
+        this.emailRepository = emailRepository;
+        this.entityManager = entityManager;
+        this.uniquenessFilter = uniquenessFilter;
+        this.interestCalculator = interestCalculator;
+        this.hotAccountService = hotAccountService;
+        this.flushSize = flushSize;
     }
 
     public Optional<User> getUserById(Long id) {
@@ -53,13 +99,57 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public List<UserDto> getAllUserDtos() {
+        return toDtos(userRepository.findAllWithAccount());
+    }
+
+    public Optional<UserDto> getUserDtoById(Long id) {
+        return userRepository.findWithAccountById(id).map(this::toDto);
+    }
+
+    public UserDto toDto(User user) {
+        return toDtos(List.of(user)).get(0);
+    }
+
+    public List<UserDto> toDtos(List<User> users) {
+        Map<Long, List<String>> phones = new HashMap<>();
+        Map<Long, List<String>> emails = new HashMap<>();
+        for (int from = 0; from < users.size(); from += MAX_SLICE_SIZE) {
+            List<Long> ids = users.subList(from, Math.min(users.size(), from + MAX_SLICE_SIZE)).stream()
+                    .map(User::getId)
+                    .toList();
+            group(phoneRepository.findNumbersByUserIds(ids), phones);
+            group(emailRepository.findContentsByUserIds(ids), emails);
+        }
+        Map<Long, BigDecimal> slots = hotAccountService.getSlotTotals(users.stream()
+                .filter(user -> user.getAccount() != null)
+                .map(user -> user.getAccount().getId())
+                .toList());
+        List<UserDto> dtos = new ArrayList<>(users.size());
+        for (User user : users) {
+            BankAccount account = user.getAccount();
+            dtos.add(new UserDto(user.getId(), user.getUsername(), user.getLogin(), user.getDateOfBirth(),
+                    phones.getOrDefault(user.getId(), List.of()), emails.getOrDefault(user.getId(), List.of()),
+                    account == null ? null : new AccountSummaryDto(account.getId(), account.getNumber(),
+                            interestCalculator.currentBalance(account,
+                                    slots.getOrDefault(account.getId(), BigDecimal.ZERO)))));
+        }
+        return dtos;
+    }
+
     public List<BankAccount> getAllBankAccounts() {
         return bankAccountRepository.findAll();
     }
 
     @Transactional
     public User createUser(User user) {
-        User dbUser = userRepository.save(user);
+        User dbUser;
+        try {
+            dbUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateValueError(e, List.of(user));
+        }
+        addToFilter(dbUser);
         if (logger.isInfoEnabled()) {
             logger.info("Created user / Создан пользователь {}", dbUser);
         }
@@ -68,16 +158,47 @@ public class UserService {
 
     @Transactional
     public List<User> createUsers(List<User> users) {
-        List<User> dbUsers = userRepository.saveAll(users);
+        long start = System.nanoTime();
+        List<User> dbUsers = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += flushSize) {
+            List<User> chunk = users.subList(from, Math.min(users.size(), from + flushSize));
+            List<User> saved;
+            try {
+                saved = userRepository.saveAllAndFlush(chunk);
+            } catch (DataIntegrityViolationException e) {
+                throw duplicateValueError(e, chunk);
+            }
+            saved.forEach(this::addToFilter);
+            dbUsers.addAll(saved);
+            entityManager.clear();
+        }
         if (logger.isInfoEnabled()) {
-            logger.info("Created users / Созданы пользователи {}", dbUsers);
+            logger.info("Created users / Созданы пользователи: {} in {} ms", dbUsers.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         }
         return dbUsers;
     }
 
+    private RuntimeException duplicateValueError(DataIntegrityViolationException e, List<User> users) {
+        return DuplicateValueErrors.map(e, users.stream().flatMap(user -> user.getPhones().stream()).toList(),
+                users.stream().flatMap(user -> user.getEmails().stream()).toList());
+    }
+
+    private void addToFilter(User user) {
+        uniquenessFilter.put(UniquenessFilter.Kind.LOGIN, user.getLogin());
+        user.getPhones().forEach(phone -> uniquenessFilter.put(UniquenessFilter.Kind.PHONE, phone.getNumber()));
+        user.getEmails().forEach(email -> uniquenessFilter.put(UniquenessFilter.Kind.EMAIL, email.getContent()));
+    }
+
     @Transactional
     public Optional<User> updateUser(Long id, User updatedUser) {
-        Optional<User> updated = userRepository.findById(id).map(oldUser -> userRepository.save(updatedUser));
+        Optional<User> updated;
+        try {
+            updated = userRepository.findById(id).map(oldUser -> userRepository.saveAndFlush(updatedUser));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateValueError(e, List.of(updatedUser));
+        }
+        updated.ifPresent(this::addToFilter);
         if (logger.isInfoEnabled()) {
             updated.ifPresent(n -> logger.info("Updated user / Обновлен пользователь {}", updated.get()));
         }
@@ -85,21 +206,94 @@ public class UserService {
     }
 
     public Page<User> getPageAllUsers(PageRequestDto dto) {
+        checkSortable(dto.getSortByColumn());
         Pageable pageable = new PageRequestDto().getPageable(dto);
         return userRepository.findAll(pageable);
     }
 
     public Page<User> getPageUsersByDateOfBirth(LocalDate dateOfBirth, PageRequestDto dto) {
+        checkSortable(dto.getSortByColumn());
         Pageable pageable = new PageRequestDto().getPageable(dto);
         return userRepository.findByDateOfBirthAfter(dateOfBirth, pageable);
     }
 
     public Page<User> getPageUsersByUsername(String substring, PageRequestDto dto) {
+        checkSortable(dto.getSortByColumn());
         String searchString = substring + "%";
         Pageable pageable = new PageRequestDto().getPageable(dto);
         return userRepository.findByUsernameLike(searchString, pageable);
     }
 
+    public Window<User> getUsers(String cursor, int size, Sort.Direction direction, String sortBy) {
+        return scroll(cursor, size, direction, sortBy, userRepository::findAllBy);
+    }
+
+    public Window<User> getUsersByUsername(String prefix, String cursor, int size, Sort.Direction direction,
+                                           String sortBy) {
+        return scroll(cursor, size, direction, sortBy,
+                (position, sort, limit) -> userRepository.findByUsernameStartingWith(prefix, position, sort, limit));
+    }
+
+    public Window<User> getUsersByDateOfBirth(LocalDate dateOfBirth, String cursor, int size,
+                                              Sort.Direction direction, String sortBy) {
+        return scroll(cursor, size, direction, sortBy,
+                (position, sort, limit) -> userRepository.findByDateOfBirthAfter(dateOfBirth, position, sort, limit));
+    }
+
+    public Optional<String> nextCursor(Window<User> window, Sort.Direction direction, String sortBy) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return Optional.empty();
+        }
+        User last = window.getContent().get(window.size() - 1);
+        Map<String, Object> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        Object value = keys.get(sortBy);
+        return Optional.of(new PageCursor(sortBy, direction, value == null ? null : value.toString(), last.getId())
+                .encode());
+    }
+
+    private Window<User> scroll(String cursor, int size, Sort.Direction direction, String sortBy, UserScroll query) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new AppRuntimeException("Page size must be between 1 and " + MAX_SLICE_SIZE +
+                    " / Размер страницы должен быть от 1 до " + MAX_SLICE_SIZE);
+        }
+        checkSortable(sortBy);
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            if (!pageCursor.getSortBy().equals(sortBy) || pageCursor.getDirection() != direction) {
+                throw new AppRuntimeException(
+                        "Cursor was issued for another sort order / Курсор выдан для другой сортировки");
+            }
+            Object value;
+            try {
+                value = SORTABLE_COLUMNS.get(sortBy).apply(pageCursor.getValue());
+            } catch (RuntimeException e) {
+                throw new AppRuntimeException("Invalid cursor / Некорректный курсор: " + cursor);
+            }
+            position = ScrollPosition.forward("id".equals(sortBy)
+                    ? Map.of("id", pageCursor.getId())
+                    : Map.of(sortBy, value, "id", pageCursor.getId()));
+        }
+        Sort sort = "id".equals(sortBy) ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+        return query.find(position, sort, Limit.of(size));
+    }
+
+    private static void group(List<UserValueDto> values, Map<Long, List<String>> byUser) {
+        for (UserValueDto value : values) {
+            byUser.computeIfAbsent(value.getUserId(), id -> new ArrayList<>()).add(value.getValue());
+        }
+    }
+
+    private void checkSortable(String sortBy) {
+        if (sortBy != null && !SORTABLE_COLUMNS.containsKey(sortBy)) {
+            throw new AppRuntimeException("Sorting is allowed only by / Сортировка возможна только по: " +
+                    String.join(", ", SORTABLE_COLUMNS.keySet()));
+        }
+    }
+
+    private interface UserScroll {
+        Window<User> find(ScrollPosition position, Sort sort, Limit limit);
+    }
 
     public boolean passwordIsValid(String password, User user) {
         BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
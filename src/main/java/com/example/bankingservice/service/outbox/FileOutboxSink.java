@@ -0,0 +1,60 @@
+package com.example.bankingservice.service.outbox;
+
+import com.example.bankingservice.model.dto.OutboxEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "bank.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final Path path;
+    private final ObjectWriter objectWriter;
+
+    public FileOutboxSink(@Value("${bank.outbox.file:./data/outbox.ndjson}") String path,
+                          ObjectProvider<ObjectMapper> objectMapper) {
+        this.path = Path.of(path);
+        this.objectWriter = objectMapper.getIfAvailable(() -> JsonMapper.builder()
+                        .findAndAddModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build())
+                .writerFor(OutboxEventDto.class);
+    }
+
+    @Override
+    public String getName() {
+        return "file:" + path;
+    }
+
+    @Override
+    public void deliver(List<OutboxEventDto> events) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileOutputStream output = new FileOutputStream(path.toFile(), true)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+            for (OutboxEventDto event : events) {
+                writer.write(objectWriter.writeValueAsString(event));
+                writer.write('\n');
+            }
+            writer.flush();
+            output.getChannel().force(false);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bankingservice.service.outbox;
+
+import com.example.bankingservice.model.dto.OutboxEventDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "bank.outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+    private final URI uri;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectWriter objectWriter;
+
+    public HttpOutboxSink(@Value("${bank.outbox.http-url:http://localhost:8081/events}") String url,
+                          @Value("${bank.outbox.http-timeout-millis:5000}") long timeoutMillis,
+                          ObjectProvider<ObjectMapper> objectMapper) {
+        this.uri = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.objectWriter = objectMapper.getIfAvailable(() -> JsonMapper.builder()
+                        .findAndAddModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build())
+                .writerFor(new TypeReference<List<OutboxEventDto>>() {
+                });
+    }
+
+    @Override
+    public String getName() {
+        return "http:" + uri;
+    }
+
+    @Override
+    public void deliver(List<OutboxEventDto> events) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectWriter.writeValueAsBytes(events)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Outbox delivery interrupted / Доставка событий прервана", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Outbox delivery rejected / Доставка событий отклонена: HTTP " +
+                    response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankingservice.service.outbox;
+
+import com.example.bankingservice.model.OutboxCheckpoint;
+import com.example.bankingservice.model.OutboxEvent;
+import com.example.bankingservice.model.dto.OutboxEventDto;
+import com.example.bankingservice.model.dto.OutboxStatsDto;
+import com.example.bankingservice.repository.OutboxCheckpointRepository;
+import com.example.bankingservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCheckpointRepository outboxCheckpointRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int retentionDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder failures = new LongAdder();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxCheckpointRepository outboxCheckpointRepository,
+                       OutboxSink sink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${bank.outbox.batch-size:1000}") int batchSize,
+                       @Value("${bank.outbox.max-batches:100}") int maxBatches,
+                       @Value("${bank.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxCheckpointRepository = outboxCheckpointRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retentionDays = retentionDays;
+    }
+
+    public int relay() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int delivered = 0;
+            for (int i = 0; i < maxBatches; i++) {
+                List<OutboxEvent> batch = outboxEventRepository.findByDeliveredAtIsNullOrderById(Limit.of(batchSize));
+                if (batch.isEmpty() || !deliver(batch)) {
+                    break;
+                }
+                delivered += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            return delivered;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public int purgeDelivered() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteDeliveredBefore(
+                LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0 && logger.isInfoEnabled()) {
+            logger.info("Delivered outbox events deleted / Удалены доставленные события: {}", deleted);
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    public OutboxStatsDto getStats() {
+        Optional<LocalDateTime> oldestPendingAt = outboxEventRepository.findOldestPendingCreatedAt();
+        Optional<OutboxCheckpoint> checkpoint = outboxCheckpointRepository.findById(sink.getName());
+        long lagMillis = oldestPendingAt.map(at -> Math.max(0, Duration.between(at, LocalDateTime.now()).toMillis()))
+                .orElse(0L);
+        return new OutboxStatsDto(sink.getName(), outboxEventRepository.countByDeliveredAtIsNull(),
+                oldestPendingAt.orElse(null), lagMillis, outboxEventRepository.findLastId().orElse(null),
+                checkpoint.map(OutboxCheckpoint::getDeliveredUpTo).orElse(null),
+                checkpoint.map(OutboxCheckpoint::getDeliveredCount).orElse(0L), failures.sum(), lastBatchSize,
+                lastBatchMillis);
+    }
+
+    // The sink is called before the events are marked delivered, so a crash in between redelivers the batch.
+    private boolean deliver(List<OutboxEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.deliver(batch.stream().map(OutboxRelay::toDto).toList());
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            if (logger.isErrorEnabled()) {
+                logger.error("Outbox delivery error / Ошибка доставки событий {}-{}: {}", batch.get(0).getId(),
+                        batch.get(batch.size() - 1).getId(), e.getMessage());
+            }
+            return false;
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.markDelivered(ids, LocalDateTime.now());
+            OutboxCheckpoint checkpoint = outboxCheckpointRepository.findById(sink.getName())
+                    .orElseGet(() -> new OutboxCheckpoint(sink.getName()));
+            checkpoint.advance(ids.get(ids.size() - 1), ids.size());
+            outboxCheckpointRepository.save(checkpoint);
+        });
+        lastBatchSize = batch.size();
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Outbox events delivered / Доставлены события: {} in {} ms", lastBatchSize, lastBatchMillis);
+        }
+        return true;
+    }
+
+    private static OutboxEventDto toDto(OutboxEvent event) {
+        return new OutboxEventDto(event.getId(), event.getEventType(), event.getTransactionId(),
+                event.getTransactionReference(), event.getFromAccountId(), event.getToAccountId(), event.getAmount(),
+                event.getCreatedAt());
+    }
+}
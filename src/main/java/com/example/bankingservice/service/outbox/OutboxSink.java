@@ -0,0 +1,13 @@
+package com.example.bankingservice.service.outbox;
+
+import com.example.bankingservice.model.dto.OutboxEventDto;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface OutboxSink {
+    String getName();
+
+    // Must not return before the batch is durably accepted; events may be delivered again after a failure.
+    void deliver(List<OutboxEventDto> events) throws IOException;
+}
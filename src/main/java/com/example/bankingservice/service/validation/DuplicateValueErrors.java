@@ -0,0 +1,38 @@
+package com.example.bankingservice.service.validation;
+
+import com.example.bankingservice.model.Email;
+import com.example.bankingservice.model.Phone;
+import com.example.bankingservice.util.ErrorsUtil;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public final class DuplicateValueErrors {
+    public static final String PHONE_NUMBER_INDEX = "phoneNumberUnique";
+    public static final String EMAIL_CONTENT_INDEX = "emailContentUnique";
+    public static final String PHONE_IN_USE = "Phone number is already in use / Телефонный номер уже используется: ";
+    public static final String EMAIL_IN_USE = "Email is already in use / Email уже используется: ";
+
+    private DuplicateValueErrors() {
+    }
+
+    // A value taken by a concurrent request passes the validators and is stopped by the unique index; the
+    // violation is reported as the same field error the validators give.
+    public static RuntimeException map(DataIntegrityViolationException e, Collection<Phone> phones,
+                                       Collection<Email> emails) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null ? violation.getConstraintName().toLowerCase(Locale.ROOT) : "";
+        if (constraint.contains(PHONE_NUMBER_INDEX.toLowerCase(Locale.ROOT))) {
+            return ErrorsUtil.fieldError("phones", PHONE_IN_USE + phones.stream().map(Phone::getNumber)
+                    .collect(Collectors.joining(", ")));
+        }
+        if (constraint.contains(EMAIL_CONTENT_INDEX.toLowerCase(Locale.ROOT))) {
+            return ErrorsUtil.fieldError("emails", EMAIL_IN_USE + emails.stream().map(Email::getContent)
+                    .collect(Collectors.joining(", ")));
+        }
+        return e;
+    }
+}
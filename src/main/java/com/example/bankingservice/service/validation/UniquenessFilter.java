@@ -0,0 +1,162 @@
+package com.example.bankingservice.service.validation;
+
+import com.example.bankingservice.model.dto.UniquenessFilterStatsDto;
+import com.example.bankingservice.repository.EmailRepository;
+import com.example.bankingservice.repository.PhoneRepository;
+import com.example.bankingservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+@Component
+public class UniquenessFilter {
+    private static final Logger logger = LoggerFactory.getLogger(UniquenessFilter.class);
+    private final UserRepository userRepository;
+    private final PhoneRepository phoneRepository;
+    private final EmailRepository emailRepository;
+    private final AtomicLongArray bits;
+    private final long mask;
+    private final int hashes;
+    private final int pageSize;
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean ready;
+
+    public enum Kind {
+        LOGIN, PHONE, EMAIL
+    }
+
+    public UniquenessFilter(UserRepository userRepository, PhoneRepository phoneRepository,
+                            EmailRepository emailRepository,
+                            @Value("${bank.validation.bloom-bits:67108864}") long bitCount,
+                            @Value("${bank.validation.bloom-hashes:7}") int hashes,
+                            @Value("${bank.validation.warm-page-size:10000}") int pageSize) {
+        this.userRepository = userRepository;
+        this.phoneRepository = phoneRepository;
+        this.emailRepository = emailRepository;
+        long size = Long.highestOneBit(Math.max(64, bitCount - 1) << 1);
+        this.bits = new AtomicLongArray((int) (size >>> 6));
+        this.mask = size - 1;
+        this.hashes = hashes;
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            warm();
+        } catch (RuntimeException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Uniqueness filter is not warmed, all values go to the database / " +
+                        "Фильтр уникальности не прогрет, все значения проверяются в базе: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void warm() {
+        long start = System.nanoTime();
+        long loaded = load(Kind.LOGIN, userRepository::findLoginsAfter)
+                + load(Kind.PHONE, phoneRepository::findNumbersAfter)
+                + load(Kind.EMAIL, emailRepository::findContentsAfter);
+        ready = true;
+        if (logger.isInfoEnabled()) {
+            logger.info("Uniqueness filter warmed / Фильтр уникальности прогрет: {} values in {} ms", loaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    public boolean mightContain(Kind kind, String value) {
+        if (value == null) {
+            return false;
+        }
+        lookups.increment();
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(kind, value);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (hash + i * step) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(Kind kind, String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(kind, value);
+        long step = mix(hash) | 1;
+        boolean added = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (hash + i * step) & mask;
+            long word = 1L << bit;
+            added |= (bits.getAndAccumulate((int) (bit >>> 6), word, (a, b) -> a | b) & word) == 0;
+        }
+        if (added) {
+            entries.increment();
+        }
+    }
+
+    public void recordFalsePositives(long count) {
+        falsePositives.add(count);
+    }
+
+    public UniquenessFilterStatsDto getStats() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        long lookupCount = lookups.sum();
+        long maybe = lookupCount - negatives.sum();
+        return new UniquenessFilterStatsDto(ready, mask + 1, hashes, entries.sum(), (double) set / (mask + 1),
+                lookupCount, negatives.sum(), falsePositives.sum(),
+                maybe == 0 ? 0 : (double) falsePositives.sum() / maybe);
+    }
+
+    private long load(Kind kind, BiFunction<String, Pageable, List<String>> page) {
+        Pageable first = PageRequest.ofSize(pageSize);
+        long loaded = 0;
+        String after = "";
+        List<String> values;
+        do {
+            values = page.apply(after, first);
+            values.forEach(value -> put(kind, value));
+            loaded += values.size();
+            if (!values.isEmpty()) {
+                after = values.get(values.size() - 1);
+            }
+        } while (values.size() == pageSize);
+        return loaded;
+    }
+
+    private static long hash(Kind kind, String value) {
+        long hash = 0xcbf29ce484222325L ^ kind.ordinal();
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.bankingservice.service.validation;
+
+import com.example.bankingservice.model.Email;
+import com.example.bankingservice.model.Phone;
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.repository.EmailRepository;
+import com.example.bankingservice.repository.PhoneRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.service.validation.UniquenessFilter.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+@Transactional(readOnly = true)
+public class UserBatchValidator {
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchValidator.class);
+    private final UserRepository userRepository;
+    private final PhoneRepository phoneRepository;
+    private final EmailRepository emailRepository;
+    private final UniquenessFilter uniquenessFilter;
+    private final int inListSize;
+
+    public UserBatchValidator(UserRepository userRepository, PhoneRepository phoneRepository,
+                              EmailRepository emailRepository, UniquenessFilter uniquenessFilter,
+                              @Value("${bank.validation.in-list-size:1000}") int inListSize) {
+        this.userRepository = userRepository;
+        this.phoneRepository = phoneRepository;
+        this.emailRepository = emailRepository;
+        this.uniquenessFilter = uniquenessFilter;
+        this.inListSize = inListSize;
+    }
+
+    public record Violation(int index, String field, String message) {
+    }
+
+    public void validate(List<User> users, Errors errors) {
+        for (Violation violation : check(users)) {
+            errors.rejectValue("[" + violation.index() + "]." + violation.field(), "", violation.message());
+        }
+    }
+
+    public List<Violation> check(List<User> users) {
+        List<Violation> violations = new ArrayList<>();
+        Map<Kind, Map<String, Integer>> seen = new EnumMap<>(Kind.class);
+        Map<Kind, Set<String>> candidates = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            seen.put(kind, new HashMap<>());
+            candidates.put(kind, new LinkedHashSet<>());
+        }
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (user.getAccount() == null || user.getAccount().getBalance() == null) {
+                violations.add(new Violation(i, "account", "The account is required / Счет обязателен"));
+            } else if (user.getAccount().getBalance().signum() <= 0) {
+                violations.add(new Violation(i, "account",
+                        "The initial balance must be greater than zero / Начальный баланс должен быть больше нуля"));
+            }
+            collect(i, Kind.LOGIN, user.getLogin(), seen, candidates, violations);
+            for (Phone phone : user.getPhones()) {
+                collect(i, Kind.PHONE, phone.getNumber(), seen, candidates, violations);
+            }
+            for (Email email : user.getEmails()) {
+                collect(i, Kind.EMAIL, email.getContent(), seen, candidates, violations);
+            }
+        }
+        Set<String> logins = existing(candidates.get(Kind.LOGIN), userRepository::findExistingLogins);
+        Set<String> numbers = existing(candidates.get(Kind.PHONE), phoneRepository::findExistingNumbers);
+        Set<String> contents = existing(candidates.get(Kind.EMAIL), emailRepository::findExistingContents);
+        uniquenessFilter.recordFalsePositives(candidates.values().stream().mapToLong(Set::size).sum()
+                - logins.size() - numbers.size() - contents.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (logins.contains(user.getLogin())) {
+                violations.add(new Violation(i, "login",
+                        "Login is already in use / Логин уже используется: " + user.getLogin()));
+            }
+            for (Phone phone : user.getPhones()) {
+                if (numbers.contains(phone.getNumber())) {
+                    violations.add(new Violation(i, "phones", DuplicateValueErrors.PHONE_IN_USE + phone.getNumber()));
+                }
+            }
+            for (Email email : user.getEmails()) {
+                if (contents.contains(email.getContent())) {
+                    violations.add(new Violation(i, "emails", DuplicateValueErrors.EMAIL_IN_USE + email.getContent()));
+                }
+            }
+        }
+        if (!violations.isEmpty() && logger.isWarnEnabled()) {
+            logger.warn("Users rejected by validation / Пользователи не прошли проверку: {} of {}",
+                    violations.stream().map(Violation::index).distinct().count(), users.size());
+        }
+        return violations;
+    }
+
+    private void collect(int index, Kind kind, String value, Map<Kind, Map<String, Integer>> seen,
+                         Map<Kind, Set<String>> candidates, List<Violation> violations) {
+        if (value == null) {
+            return;
+        }
+        Integer first = seen.get(kind).putIfAbsent(value, index);
+        if (first != null && first != index) {
+            violations.add(new Violation(index, field(kind),
+                    "Duplicate within the batch / Повтор в пакете: " + value + " (row " + (first + 1) + ")"));
+        } else if (uniquenessFilter.mightContain(kind, value)) {
+            candidates.get(kind).add(value);
+        }
+    }
+
+    private Set<String> existing(Set<String> values, Function<Collection<String>, List<String>> query) {
+        Set<String> found = new HashSet<>();
+        List<String> list = new ArrayList<>(values);
+        for (int from = 0; from < list.size(); from += inListSize) {
+            found.addAll(query.apply(list.subList(from, Math.min(list.size(), from + inListSize))));
+        }
+        return found;
+    }
+
+    private static String field(Kind kind) {
+        return switch (kind) {
+            case LOGIN -> "login";
+            case PHONE -> "phones";
+            case EMAIL -> "emails";
+        };
+    }
+}
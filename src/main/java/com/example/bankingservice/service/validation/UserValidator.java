@@ -24,15 +24,18 @@ public class UserValidator implements Validator {
     private UserRepository userRepository;
     private PhoneRepository phoneRepository;
     private EmailRepository emailRepository;
+    private UniquenessFilter uniquenessFilter;
 
     public UserValidator() {
     }
 
     @Autowired
-    public UserValidator(UserRepository userRepository, PhoneRepository phoneRepository, EmailRepository emailRepository) {
+    public UserValidator(UserRepository userRepository, PhoneRepository phoneRepository, EmailRepository emailRepository,
+                         UniquenessFilter uniquenessFilter) {
         this.userRepository = userRepository;
         this.phoneRepository = phoneRepository;
         this.emailRepository = emailRepository;
+        this.uniquenessFilter = uniquenessFilter;
     }
 
     @Override
@@ -43,7 +46,8 @@ public class UserValidator implements Validator {
     @Override
     public void validate(@Nonnull Object target, @Nonnull Errors errors) {
         User user = (User) target;
-        if (userRepository.findUserByLogin(user.getLogin()) != null) {
+        if (mightExist(UniquenessFilter.Kind.LOGIN, user.getLogin())
+                && userRepository.findUserByLogin(user.getLogin()) != null) {
             String str = String.format("Login is already in use / Логин уже используется: %s",
                     user.getLogin());
             errors.rejectValue("login", "", str);
@@ -55,19 +59,24 @@ public class UserValidator implements Validator {
             logger.warn(str);
         }
         for (Phone phone : user.getPhones()) {
-            if (phoneRepository.findPhoneByNumber(phone.getNumber()) != null) {
-                String str = String.format("Phone number is already in use / Телефонный номер уже используется: %s",
-                        phone.getNumber());
+            if (mightExist(UniquenessFilter.Kind.PHONE, phone.getNumber())
+                    && phoneRepository.findPhoneByNumber(phone.getNumber()) != null) {
+                String str = DuplicateValueErrors.PHONE_IN_USE + phone.getNumber();
                 errors.rejectValue("phones", "", str);
                 logger.warn(str);
             }
         }
         for (Email email : user.getEmails()) {
-            if (emailRepository.findEmailByContent(email.getContent()) != null) {
-                String str = String.format("Email is already in use / Email уже используется: %s", email.getContent());
+            if (mightExist(UniquenessFilter.Kind.EMAIL, email.getContent())
+                    && emailRepository.findEmailByContent(email.getContent()) != null) {
+                String str = DuplicateValueErrors.EMAIL_IN_USE + email.getContent();
                 errors.rejectValue("emails", "", str);
                 logger.warn(str);
             }
         }
     }
+
+    private boolean mightExist(UniquenessFilter.Kind kind, String value) {
+        return uniquenessFilter == null || uniquenessFilter.mightContain(kind, value);
+    }
 }
@@ -18,4 +18,8 @@ public class ErrorsUtil {
 
         throw new AppRuntimeException(errorMsg.toString());
     }
+
+    public static AppRuntimeException fieldError(String field, String message) {
+        return new AppRuntimeException(field + " - " + message + ";");
+    }
 }
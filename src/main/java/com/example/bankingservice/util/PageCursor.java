@@ -0,0 +1,36 @@
+package com.example.bankingservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public final class PageCursor {
+    private static final String SEPARATOR = "\n";
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long id;
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), value == null ? "" : value, id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(token);
+            }
+            return new PageCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[2], Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new AppRuntimeException("Invalid cursor / Некорректный курсор: " + token);
+        }
+    }
+}
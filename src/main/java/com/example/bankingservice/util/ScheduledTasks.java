@@ -1,24 +1,47 @@
 package com.example.bankingservice.util;
 
-import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.service.AsyncTransferService;
+import com.example.bankingservice.service.BalanceSnapshotService;
 import com.example.bankingservice.service.BankTransactionService;
-import com.example.bankingservice.service.UserService;
+import com.example.bankingservice.service.IdempotencyService;
+import com.example.bankingservice.service.InterestAccrualService;
+import com.example.bankingservice.service.LedgerReconciliationService;
+import com.example.bankingservice.service.TransactionPartitionService;
+import com.example.bankingservice.service.outbox.OutboxRelay;
+import com.example.bankingservice.service.validation.UniquenessFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class ScheduledTasks {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasks.class);
-    private final UserService userService;
+    private final InterestAccrualService interestAccrualService;
+    private final IdempotencyService idempotencyService;
     private final BankTransactionService bankTransactionService;
+    private final UniquenessFilter uniquenessFilter;
+    private final TransactionPartitionService transactionPartitionService;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final LedgerReconciliationService ledgerReconciliationService;
+    private final OutboxRelay outboxRelay;
+    private final AsyncTransferService asyncTransferService;
 
-    public ScheduledTasks(UserService userService, BankTransactionService bankTransactionService) {
-        this.userService = userService;
+    public ScheduledTasks(InterestAccrualService interestAccrualService, IdempotencyService idempotencyService,
+                          BankTransactionService bankTransactionService, UniquenessFilter uniquenessFilter,
+                          TransactionPartitionService transactionPartitionService,
+                          BalanceSnapshotService balanceSnapshotService,
+                          LedgerReconciliationService ledgerReconciliationService,
+                          OutboxRelay outboxRelay, AsyncTransferService asyncTransferService) {
+        this.interestAccrualService = interestAccrualService;
+        this.idempotencyService = idempotencyService;
         this.bankTransactionService = bankTransactionService;
+        this.uniquenessFilter = uniquenessFilter;
+        this.transactionPartitionService = transactionPartitionService;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.ledgerReconciliationService = ledgerReconciliationService;
+        this.outboxRelay = outboxRelay;
+        this.asyncTransferService = asyncTransferService;
     }
 
     @Scheduled(fixedRate = 60 * 1000)
@@ -26,9 +49,80 @@ public class ScheduledTasks {
         if (logger.isInfoEnabled()) {
             logger.info("Start of the task 'ChargeInterest' / Запуск регламентного задания 'Начисление процентов'");
         }
-        List<BankAccount> accounts = userService.getAllBankAccounts();
-        for (BankAccount account : accounts) {
-            bankTransactionService.chargeInterest(account);
+        interestAccrualService.chargeInterest();
+    }
+
+    @Scheduled(initialDelayString = "${bank.accrual.compaction-millis:3600000}",
+            fixedDelayString = "${bank.accrual.compaction-millis:3600000}")
+    public void compactInterestTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'CompactInterest' / Запуск регламентного задания 'Фиксация процентов'");
+        }
+        interestAccrualService.compactInterest();
+    }
+
+    @Scheduled(fixedRate = 60 * 60 * 1000)
+    public void deleteExpiredIdempotencyKeysTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'DeleteExpiredIdempotencyKeys' / Запуск регламентного задания 'Удаление ключей идемпотентности'");
+        }
+        idempotencyService.deleteExpiredKeys();
+    }
+
+    @Scheduled(fixedDelayString = "${bank.hot-accounts.rebalance-millis:10000}")
+    public void rebalanceHotAccountsTask() {
+        bankTransactionService.rebalanceHotAccounts();
+    }
+
+    @Scheduled(initialDelayString = "${bank.validation.warm-millis:3600000}",
+            fixedDelayString = "${bank.validation.warm-millis:3600000}")
+    public void warmUniquenessFilterTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'WarmUniquenessFilter' / Запуск регламентного задания 'Прогрев фильтра уникальности'");
+        }
+        uniquenessFilter.warm();
+    }
+
+    @Scheduled(cron = "${bank.transaction-partitions.cron:0 0 3 * * *}")
+    public void maintainTransactionPartitionsTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'MaintainTransactionPartitions' / Запуск регламентного задания 'Обслуживание секций транзакций'");
+        }
+        transactionPartitionService.maintain();
+    }
+
+    @Scheduled(cron = "${bank.snapshots.cron:0 15 * * * *}")
+    public void takeBalanceSnapshotsTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'TakeBalanceSnapshots' / Запуск регламентного задания 'Снимки балансов'");
+        }
+        balanceSnapshotService.takeSnapshots();
+    }
+
+    @Scheduled(cron = "${bank.reconciliation.cron:0 30 1 * * *}")
+    public void reconcileLedgerTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'ReconcileLedger' / Запуск регламентного задания 'Сверка счетов'");
+        }
+        ledgerReconciliationService.reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${bank.outbox.relay-millis:1000}",
+            fixedDelayString = "${bank.outbox.relay-millis:1000}")
+    public void relayOutboxTask() {
+        outboxRelay.relay();
+    }
+
+    @Scheduled(fixedDelayString = "${bank.async-transfer.resume-millis:5000}")
+    public void resumePendingTransfersTask() {
+        asyncTransferService.resumePending();
+    }
+
+    @Scheduled(fixedRate = 60 * 60 * 1000)
+    public void purgeOutboxTask() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Start of the task 'PurgeOutbox' / Запуск регламентного задания 'Очистка исходящих событий'");
         }
+        outboxRelay.purgeDelivered();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.example.bankingservice.web.controller;
+
+import com.example.bankingservice.model.TransactionDirection;
+import com.example.bankingservice.model.dto.AccountBalanceDto;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.model.dto.TransactionPageDto;
+import com.example.bankingservice.service.AccountHistoryService;
+import com.example.bankingservice.service.BalanceSnapshotService;
+import com.example.bankingservice.util.AppErrorResponse;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("api/accounts")
+public class AccountController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private final AccountHistoryService accountHistoryService;
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    public AccountController(AccountHistoryService accountHistoryService,
+                             BalanceSnapshotService balanceSnapshotService) {
+        this.accountHistoryService = accountHistoryService;
+        this.balanceSnapshotService = balanceSnapshotService;
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceDto> getBalance(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "at", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.of(at == null ? balanceSnapshotService.getBalance(id)
+                : balanceSnapshotService.getBalanceAt(id, at));
+    }
+
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<List<TransactionDto>> getTransactions(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "direction", defaultValue = "BOTH") TransactionDirection direction,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        Optional<TransactionPageDto> page = accountHistoryService.getTransactions(id, direction, from, to, cursor,
+                size);
+        if (page.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.get().getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.get().getNextCursor());
+        }
+        return response.body(page.get().getTransactions());
+    }
+
+    @ExceptionHandler
+    private ResponseEntity<AppErrorResponse> handleException(AppRuntimeException e) {
+        AppErrorResponse response = new AppErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankingservice.web.controller;
+
+import com.example.bankingservice.model.dto.AccrualProgressDto;
+import com.example.bankingservice.service.InterestAccrualService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/accruals")
+public class AccrualController {
+    private final InterestAccrualService interestAccrualService;
+
+    @Autowired
+    public AccrualController(InterestAccrualService interestAccrualService) {
+        this.interestAccrualService = interestAccrualService;
+    }
+
+    @GetMapping("/progress")
+    public ResponseEntity<AccrualProgressDto> getProgress() {
+        return ResponseEntity.ok().body(interestAccrualService.getProgress());
+    }
+}
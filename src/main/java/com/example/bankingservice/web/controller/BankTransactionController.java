@@ -2,20 +2,39 @@ package com.example.bankingservice.web.controller;
 
 import com.example.bankingservice.model.BankAccount;
 import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.BatchMode;
+import com.example.bankingservice.model.ExportFormat;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
+import com.example.bankingservice.service.AsyncTransferService;
 import com.example.bankingservice.service.BankTransactionService;
+import com.example.bankingservice.service.IdempotencyService;
+import com.example.bankingservice.service.TransactionExportService;
+import com.example.bankingservice.service.TransferService;
 import com.example.bankingservice.util.AppErrorResponse;
 import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 import static com.example.bankingservice.util.ErrorsUtil.returnErrorsToClient;
 
@@ -23,11 +42,23 @@ import static com.example.bankingservice.util.ErrorsUtil.returnErrorsToClient;
 @RequestMapping("api/transactions")
 public class BankTransactionController {
     private static final Logger logger = LoggerFactory.getLogger(BankTransactionController.class);
+    private static final String QUEUE_DEPTH_HEADER = "X-Queue-Depth";
     private final BankTransactionService bankTransactionService;
+    private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionExportService transactionExportService;
+    private final AsyncTransferService asyncTransferService;
 
     @Autowired
-    public BankTransactionController(BankTransactionService bankTransactionService) {
+    public BankTransactionController(BankTransactionService bankTransactionService, TransferService transferService,
+                                     IdempotencyService idempotencyService,
+                                     TransactionExportService transactionExportService,
+                                     AsyncTransferService asyncTransferService) {
         this.bankTransactionService = bankTransactionService;
+        this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
+        this.transactionExportService = transactionExportService;
+        this.asyncTransferService = asyncTransferService;
     }
 
     @GetMapping
@@ -36,6 +67,32 @@ public class BankTransactionController {
         return ResponseEntity.ok().body(transactions);
     }
 
+    @GetMapping("/export")
+    public void exportBankTransactions(
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "status", required = false) TransactionStatus status,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        String fileName = format == ExportFormat.CSV ? "transactions.csv" : "transactions.ndjson";
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream output = response.getOutputStream();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, 64 * 1024) : null;
+        transactionExportService.export(compressed == null ? output : compressed, format, from, to, status);
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BankTransaction> getBankTransaction(@PathVariable("id") Long id) {
         Optional<BankTransaction> transaction = bankTransactionService.getByTransactionId(id);
@@ -44,14 +101,46 @@ public class BankTransactionController {
 
     @PostMapping("/transfer")
     public ResponseEntity<BankTransaction> transferFunds(@RequestBody BankAccount fromAccount, BankAccount toAccount,
-                                                         BigDecimal amount, BindingResult bindingResult) {
+                                                         BigDecimal amount, BindingResult bindingResult,
+                                                         @RequestHeader(value = "Idempotency-Key", required = false)
+                                                         String idempotencyKey) {
         if (bindingResult.hasErrors()) {
             returnErrorsToClient(bindingResult);
         }
-        bankTransactionService.internalFundTransfer(fromAccount, toAccount, amount);
+        boolean transferred = idempotencyKey == null
+                ? transferService.transfer(fromAccount, toAccount, amount)
+                : idempotencyService.transfer(idempotencyKey, fromAccount.getId(), toAccount.getId(), amount,
+                () -> transferService.transfer(fromAccount, toAccount, amount));
+        if (!transferred) {
+            throw new AppRuntimeException("Insufficient funds / Недостаточно средств");
+        }
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/transfer-batch")
+    public ResponseEntity<List<TransferResultDto>> transferBatch(
+            @RequestBody List<TransferEntryDto> transfers,
+            @RequestParam(name = "mode", defaultValue = "BEST_EFFORT") BatchMode mode) {
+        return ResponseEntity.ok().body(transferService.transferBatch(transfers, mode));
+    }
+
+    @PostMapping("/transfer-async")
+    public ResponseEntity<TransactionDto> submitTransfer(@RequestBody TransferEntryDto transfer) {
+        TransactionDto transaction = asyncTransferService.submit(transfer.getFromAccountId(),
+                transfer.getToAccountId(), transfer.getAmount());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/by-reference/" + transaction.getTransactionReference()))
+                .header(QUEUE_DEPTH_HEADER, String.valueOf(asyncTransferService.getQueueDepth()))
+                .body(transaction);
+    }
+
+    @GetMapping("/by-reference/{reference}")
+    public CompletableFuture<ResponseEntity<TransactionDto>> getByReference(
+            @PathVariable("reference") String reference,
+            @RequestParam(name = "wait", defaultValue = "0") long waitMillis) {
+        return asyncTransferService.awaitTransfer(reference, waitMillis).thenApply(ResponseEntity::of);
+    }
+
     @ExceptionHandler
     private ResponseEntity<AppErrorResponse> handleException(AppRuntimeException e) {
         AppErrorResponse response = new AppErrorResponse(e.getMessage(), System.currentTimeMillis());
@@ -0,0 +1,107 @@
+package com.example.bankingservice.web.controller;
+
+import com.example.bankingservice.model.dto.AsyncTransferStatsDto;
+import com.example.bankingservice.model.dto.IdempotencyStatsDto;
+import com.example.bankingservice.model.dto.JournalStatsDto;
+import com.example.bankingservice.model.dto.LockStatsDto;
+import com.example.bankingservice.model.dto.OutboxStatsDto;
+import com.example.bankingservice.model.dto.PartitionStatsDto;
+import com.example.bankingservice.model.dto.PipelineStatsDto;
+import com.example.bankingservice.model.dto.RetryStatsDto;
+import com.example.bankingservice.model.dto.UniquenessFilterStatsDto;
+import com.example.bankingservice.service.AccountLockManager;
+import com.example.bankingservice.service.AsyncTransferService;
+import com.example.bankingservice.service.GroupCommitTransferPipeline;
+import com.example.bankingservice.service.IdempotencyService;
+import com.example.bankingservice.service.OptimisticTransferExecutor;
+import com.example.bankingservice.service.PartitionedAccountExecutor;
+import com.example.bankingservice.service.TransferJournal;
+import com.example.bankingservice.service.outbox.OutboxRelay;
+import com.example.bankingservice.service.validation.UniquenessFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/metrics")
+public class MetricsController {
+    private final AccountLockManager accountLockManager;
+    private final OptimisticTransferExecutor optimisticTransferExecutor;
+    private final GroupCommitTransferPipeline groupCommitTransferPipeline;
+    private final PartitionedAccountExecutor partitionedAccountExecutor;
+    private final TransferJournal transferJournal;
+    private final IdempotencyService idempotencyService;
+    private final UniquenessFilter uniquenessFilter;
+    private final AsyncTransferService asyncTransferService;
+    private final OutboxRelay outboxRelay;
+
+    @Autowired
+    public MetricsController(AccountLockManager accountLockManager,
+                             OptimisticTransferExecutor optimisticTransferExecutor,
+                             GroupCommitTransferPipeline groupCommitTransferPipeline,
+                             PartitionedAccountExecutor partitionedAccountExecutor,
+                             TransferJournal transferJournal,
+                             IdempotencyService idempotencyService,
+                             UniquenessFilter uniquenessFilter,
+                             AsyncTransferService asyncTransferService,
+                             OutboxRelay outboxRelay) {
+        this.accountLockManager = accountLockManager;
+        this.optimisticTransferExecutor = optimisticTransferExecutor;
+        this.groupCommitTransferPipeline = groupCommitTransferPipeline;
+        this.partitionedAccountExecutor = partitionedAccountExecutor;
+        this.transferJournal = transferJournal;
+        this.idempotencyService = idempotencyService;
+        this.uniquenessFilter = uniquenessFilter;
+        this.asyncTransferService = asyncTransferService;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @GetMapping("/locks")
+    public ResponseEntity<LockStatsDto> getLockStats() {
+        return ResponseEntity.ok().body(accountLockManager.getStats());
+    }
+
+    @GetMapping("/transfer-retries")
+    public ResponseEntity<RetryStatsDto> getTransferRetryStats() {
+        return ResponseEntity.ok().body(optimisticTransferExecutor.getStats());
+    }
+
+    @GetMapping("/transfer-pipeline")
+    public ResponseEntity<PipelineStatsDto> getTransferPipelineStats() {
+        return ResponseEntity.ok().body(groupCommitTransferPipeline.getStats());
+    }
+
+    @GetMapping("/partitions")
+    public ResponseEntity<List<PartitionStatsDto>> getPartitionStats() {
+        return ResponseEntity.ok().body(partitionedAccountExecutor.getStats());
+    }
+
+    @GetMapping("/journal")
+    public ResponseEntity<JournalStatsDto> getJournalStats() {
+        return ResponseEntity.ok().body(transferJournal.getStats());
+    }
+
+    @GetMapping("/idempotency")
+    public ResponseEntity<IdempotencyStatsDto> getIdempotencyStats() {
+        return ResponseEntity.ok().body(idempotencyService.getStats());
+    }
+
+    @GetMapping("/uniqueness-filter")
+    public ResponseEntity<UniquenessFilterStatsDto> getUniquenessFilterStats() {
+        return ResponseEntity.ok().body(uniquenessFilter.getStats());
+    }
+
+    @GetMapping("/async-transfers")
+    public ResponseEntity<AsyncTransferStatsDto> getAsyncTransferStats() {
+        return ResponseEntity.ok().body(asyncTransferService.getStats());
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStatsDto> getOutboxStats() {
+        return ResponseEntity.ok().body(outboxRelay.getStats());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankingservice.web.controller;
+
+import com.example.bankingservice.model.dto.ReconciliationReportDto;
+import com.example.bankingservice.service.LedgerReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/reconciliation")
+public class ReconciliationController {
+    private final LedgerReconciliationService ledgerReconciliationService;
+
+    @Autowired
+    public ReconciliationController(LedgerReconciliationService ledgerReconciliationService) {
+        this.ledgerReconciliationService = ledgerReconciliationService;
+    }
+
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationReportDto> runReconciliation(
+            @RequestParam(name = "full", defaultValue = "false") boolean fullScan) {
+        return ResponseEntity.ok().body(ledgerReconciliationService.runReconciliation(fullScan));
+    }
+
+    @GetMapping("/runs/last")
+    public ResponseEntity<ReconciliationReportDto> getLastReport() {
+        return ResponseEntity.of(ledgerReconciliationService.getLastReport());
+    }
+}
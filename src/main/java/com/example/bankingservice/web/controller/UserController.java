@@ -1,21 +1,28 @@
 package com.example.bankingservice.web.controller;
 
 import com.example.bankingservice.model.User;
-import com.example.bankingservice.model.dto.PageRequestDto;
+import com.example.bankingservice.model.dto.ImportProgressDto;
+import com.example.bankingservice.model.dto.UserDto;
+import com.example.bankingservice.service.UserImportService;
 import com.example.bankingservice.service.UserService;
+import com.example.bankingservice.service.validation.UserBatchValidator;
 import com.example.bankingservice.service.validation.UserValidator;
 import com.example.bankingservice.util.AppErrorResponse;
 import com.example.bankingservice.util.AppRuntimeException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
@@ -30,30 +37,36 @@ import static com.example.bankingservice.util.ErrorsUtil.returnErrorsToClient;
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private static final Random RANDOMIZER = new Random();
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final UserService userService;
     private final UserValidator userValidator;
+    private final UserBatchValidator userBatchValidator;
+    private final UserImportService userImportService;
 
 
     @Autowired
-    public UserController(UserService userService, UserValidator userValidator) {
+    public UserController(UserService userService, UserValidator userValidator, UserBatchValidator userBatchValidator,
+                          UserImportService userImportService) {
         this.userService = userService;
         this.userValidator = userValidator;
+        this.userBatchValidator = userBatchValidator;
+        this.userImportService = userImportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers() {
+        List<UserDto> users = userService.getAllUserDtos();
         return ResponseEntity.ok().body(users);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(@PathVariable("id") Long id) {
-        Optional<User> user = userService.getUserById(id);
+    public ResponseEntity<UserDto> getUser(@PathVariable("id") Long id) {
+        Optional<UserDto> user = userService.getUserDtoById(id);
         return ResponseEntity.of(user);
     }
 
     @GetMapping("/random")
-    public ResponseEntity<User> getRandomUser() {
+    public ResponseEntity<UserDto> getRandomUser() {
         return getUser(nextLong(1, userService.getUserRepository().count() + 1));
     }
 
@@ -68,9 +81,7 @@ public class UserController {
 
     @PostMapping("/add-all")
     public ResponseEntity<List<User>> addUsers(@RequestBody List<User> users, BindingResult bindingResult) {
-        for (User user : users) {
-            userValidator.validate(user, bindingResult);
-        }
+        userBatchValidator.validate(users, bindingResult);
         if (bindingResult.hasErrors()) {
             returnErrorsToClient(bindingResult);
         }
@@ -78,61 +89,70 @@ public class UserController {
         return ResponseEntity.ok().body(created);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportProgressDto> importUsers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(userImportService.importUsers(request.getInputStream()));
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<List<ImportProgressDto>> getImports() {
+        return ResponseEntity.ok().body(userImportService.getJobs());
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<ImportProgressDto> getImport(@PathVariable("id") Long id) {
+        return ResponseEntity.of(userImportService.getProgress(id));
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<List<User>> findAll() {
-        PageRequestDto dto = new PageRequestDto();
-        dto.setSort(Sort.Direction.ASC);
-        dto.setSortByColumn("username");
-        List<User> users = userService.getPageAllUsers(dto).getContent();
-        return ResponseEntity.ok().body(users);
+    public ResponseEntity<List<UserDto>> findAll(@RequestParam(name = "cursor", required = false) String cursor,
+                                              @RequestParam(name = "size", defaultValue = "10") int size,
+                                              @RequestParam(name = "sortBy", defaultValue = "username") String sortBy) {
+        return slice(userService.getUsers(cursor, size, Sort.Direction.ASC, sortBy), Sort.Direction.ASC, sortBy);
     }
 
     @GetMapping("/all-desc")
-    public ResponseEntity<List<User>> findAllDesc() {
-        PageRequestDto dto = new PageRequestDto();
-        dto.setSort(Sort.Direction.DESC);
-        dto.setSortByColumn("username");
-        List<User> users = userService.getPageAllUsers(dto).getContent();
-        return ResponseEntity.ok().body(users);
+    public ResponseEntity<List<UserDto>> findAllDesc(@RequestParam(name = "cursor", required = false) String cursor,
+                                                  @RequestParam(name = "size", defaultValue = "10") int size,
+                                                  @RequestParam(name = "sortBy", defaultValue = "username") String sortBy) {
+        return slice(userService.getUsers(cursor, size, Sort.Direction.DESC, sortBy), Sort.Direction.DESC, sortBy);
     }
 
     @GetMapping("/find-by-name")
-    public ResponseEntity<List<User>> findByUsername(@RequestParam(name = "username", required = false) String username) {
-        List<User> users;
-        PageRequestDto dto = new PageRequestDto();
-        dto.setSort(Sort.Direction.ASC);
-        dto.setSortByColumn("username");
+    public ResponseEntity<List<UserDto>> findByUsername(@RequestParam(name = "username", required = false) String username,
+                                                     @RequestParam(name = "cursor", required = false) String cursor,
+                                                     @RequestParam(name = "size", defaultValue = "10") int size) {
+        Window<User> users;
         if (Objects.isNull(username)) {
-            users = userService.getPageAllUsers(dto).getContent();
+            users = userService.getUsers(cursor, size, Sort.Direction.ASC, "username");
         } else {
-            users = userService.getPageUsersByUsername(username, dto).getContent();
+            users = userService.getUsersByUsername(username, cursor, size, Sort.Direction.ASC, "username");
         }
-        return ResponseEntity.ok().body(users);
+        return slice(users, Sort.Direction.ASC, "username");
     }
 
     @GetMapping("/find-by-dob")
-    public ResponseEntity<List<User>> findByDateOfBirth(@RequestParam(name = "dateOfBirth") LocalDate dateOfBirth) {
-        List<User> users;
-        PageRequestDto dto = new PageRequestDto();
-        dto.setSort(Sort.Direction.ASC);
-        dto.setSortByColumn("username");
+    public ResponseEntity<List<UserDto>> findByDateOfBirth(@RequestParam(name = "dateOfBirth") LocalDate dateOfBirth,
+                                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                                        @RequestParam(name = "size", defaultValue = "10") int size) {
+        Window<User> users;
         if (Objects.isNull(dateOfBirth)) {
-            users = userService.getPageAllUsers(dto).getContent();
+            users = userService.getUsers(cursor, size, Sort.Direction.ASC, "dateOfBirth");
         } else {
-            users = userService.getPageUsersByDateOfBirth(dateOfBirth, dto).getContent();
+            users = userService.getUsersByDateOfBirth(dateOfBirth, cursor, size, Sort.Direction.ASC, "dateOfBirth");
         }
-        return ResponseEntity.ok().body(users);
+        return slice(users, Sort.Direction.ASC, "dateOfBirth");
     }
 
     @GetMapping("/find-by-phone")
-    public ResponseEntity<User> getUserByPhone(@RequestParam(name = "phone") String number) {
-        Optional<User> user = userService.getUserByPhone(number);
+    public ResponseEntity<UserDto> getUserByPhone(@RequestParam(name = "phone") String number) {
+        Optional<UserDto> user = userService.getUserByPhone(number).map(userService::toDto);
         return ResponseEntity.of(user);
     }
 
     @GetMapping("/find-by-email")
-    public ResponseEntity<User> getUserByEmail(@RequestParam(name = "email") String email) {
-        Optional<User> user = userService.getUserByEmail(email);
+    public ResponseEntity<UserDto> getUserByEmail(@RequestParam(name = "email") String email) {
+        Optional<UserDto> user = userService.getUserByEmail(email).map(userService::toDto);
         return ResponseEntity.of(user);
     }
 
@@ -168,6 +188,12 @@ public class UserController {
 //        return updated.map(value -> ResponseEntity.ok().body(value)).orElseGet(() -> getNewUser(updatedUser));
 //    }
 
+    private ResponseEntity<List<UserDto>> slice(Window<User> users, Sort.Direction direction, String sortBy) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        userService.nextCursor(users, direction, sortBy).ifPresent(next -> response.header(NEXT_CURSOR_HEADER, next));
+        return response.body(userService.toDtos(users.getContent()));
+    }
+
     public ResponseEntity<User> getNewUser(@RequestBody User user) {
         User created = userService.createUser(user);
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
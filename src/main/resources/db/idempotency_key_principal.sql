@@ -0,0 +1,11 @@
+-- Scopes "IdempotencyKey" to the authenticated principal (PostgreSQL). Keys stored before the change belong to no
+-- principal and are kept under the empty name until bank.idempotency.retention-days removes them.
+BEGIN;
+
+ALTER TABLE "IdempotencyKey" ADD COLUMN IF NOT EXISTS "principalName" VARCHAR(100);
+UPDATE "IdempotencyKey" SET "principalName" = '' WHERE "principalName" IS NULL;
+ALTER TABLE "IdempotencyKey" ALTER COLUMN "principalName" SET NOT NULL;
+DROP INDEX IF EXISTS "idempotencyKeyUnique";
+CREATE UNIQUE INDEX "idempotencyKeyUnique" ON "IdempotencyKey" ("principalName", "idempotencyKey");
+
+COMMIT;
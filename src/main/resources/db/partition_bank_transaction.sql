@@ -0,0 +1,55 @@
+-- One-time conversion of "BankTransaction" into a table partitioned by month on "createdAt" (PostgreSQL 12+).
+-- Run with the application stopped, then set bank.transaction-partitions.enabled=true: monthly partitions are
+-- created ahead and partitions older than bank.transaction-partitions.hot-months are moved to the archive schema,
+-- leaving their per-account totals in "LedgerCarryForward" as the opening balance for the rows that remain.
+BEGIN;
+
+ALTER TABLE "BankTransaction" RENAME TO "BankTransaction_unpartitioned";
+ALTER INDEX IF EXISTS "bankTransactionReference" RENAME TO "bankTransactionReference_unpartitioned";
+ALTER INDEX IF EXISTS "bankTransactionFromAccount" RENAME TO "bankTransactionFromAccount_unpartitioned";
+ALTER INDEX IF EXISTS "bankTransactionToAccount" RENAME TO "bankTransactionToAccount_unpartitioned";
+
+CREATE TABLE "BankTransaction"
+(
+    "id"                   BIGINT       NOT NULL,
+    "transactionReference" VARCHAR(255),
+    "amount"               NUMERIC(38, 2),
+    "status"               VARCHAR(255),
+    "fromAccountId"        BIGINT REFERENCES "BankAccount" ("id"),
+    "toAccountId"          BIGINT REFERENCES "BankAccount" ("id"),
+    "createdAt"            TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY ("id", "createdAt")
+) PARTITION BY RANGE ("createdAt");
+
+CREATE INDEX "bankTransactionReference" ON "BankTransaction" ("transactionReference");
+CREATE INDEX "bankTransactionFromAccount" ON "BankTransaction" ("fromAccountId", "createdAt", "id");
+CREATE INDEX "bankTransactionToAccount" ON "BankTransaction" ("toAccountId", "createdAt", "id");
+
+-- rows outside every monthly partition land here until the maintenance job catches up
+CREATE TABLE "BankTransaction_default" PARTITION OF "BankTransaction" DEFAULT;
+
+DO
+$$
+    DECLARE
+        month DATE;
+    BEGIN
+        FOR month IN
+            SELECT generate_series(date_trunc('month', coalesce(min("createdAt"), now())),
+                                   date_trunc('month', now()), INTERVAL '1 month')::DATE
+            FROM "BankTransaction_unpartitioned"
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF "BankTransaction" FOR VALUES FROM (%L) TO (%L)',
+                               'BankTransaction_' || to_char(month, 'YYYY_MM'), month,
+                               (month + INTERVAL '1 month')::DATE);
+            END LOOP;
+    END
+$$;
+
+INSERT INTO "BankTransaction" ("id", "transactionReference", "amount", "status", "fromAccountId", "toAccountId",
+                               "createdAt")
+SELECT "id", "transactionReference", "amount", "status", "fromAccountId", "toAccountId", coalesce("createdAt", now())
+FROM "BankTransaction_unpartitioned";
+
+DROP TABLE "BankTransaction_unpartitioned";
+
+COMMIT;
@@ -0,0 +1,33 @@
+-- Creates the id sequences of the pooled generators (allocationSize 50) on an existing database (PostgreSQL) and moves
+-- each one past the ids already stored, so the first block handed out starts at max("id") + 1. Run with the
+-- application stopped: blocks already allocated by a running instance are not taken into account.
+BEGIN;
+
+DO
+$$
+    DECLARE
+        target RECORD;
+    BEGIN
+        FOR target IN SELECT *
+                      FROM (VALUES ('user_seq', 'user_'),
+                                   ('BankAccount_seq', 'BankAccount'),
+                                   ('BankTransaction_seq', 'BankTransaction'),
+                                   ('Phone_seq', 'Phone'),
+                                   ('Email_seq', 'Email'),
+                                   ('BalanceSlot_seq', 'BalanceSlot'),
+                                   ('BalanceSnapshot_seq', 'BalanceSnapshot'),
+                                   ('ReconciliationRun_seq', 'ReconciliationRun'),
+                                   ('LedgerDiscrepancy_seq', 'LedgerDiscrepancy'),
+                                   ('OutboxEvent_seq', 'OutboxEvent')) AS sequences ("sequenceName", "tableName")
+            LOOP
+                EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', target."sequenceName");
+                EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', target."sequenceName");
+                IF to_regclass(quote_ident(target."tableName")) IS NOT NULL THEN
+                    EXECUTE format('SELECT setval(%L, COALESCE((SELECT max("id") FROM %I), 0) + 50, false)',
+                                   quote_ident(target."sequenceName"), target."tableName");
+                END IF;
+            END LOOP;
+    END
+$$;
+
+COMMIT;
@@ -0,0 +1,10 @@
+-- Makes phone numbers and emails unique on an existing database (PostgreSQL). Duplicates left by concurrent sign-ups
+-- have to be resolved before running it, otherwise the index creation fails and nothing is changed.
+BEGIN;
+
+DROP INDEX IF EXISTS "phoneNumber";
+CREATE UNIQUE INDEX IF NOT EXISTS "phoneNumberUnique" ON "Phone" ("phoneNmr");
+DROP INDEX IF EXISTS "emailContent";
+CREATE UNIQUE INDEX IF NOT EXISTS "emailContentUnique" ON "Email" ("content");
+
+COMMIT;
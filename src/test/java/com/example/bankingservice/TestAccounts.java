@@ -0,0 +1,26 @@
+package com.example.bankingservice;
+
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.DateUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public final class TestAccounts {
+    private TestAccounts() {
+    }
+
+    public static Long newAccount(UserRepository userRepo, String login, String number, double balance) {
+        User user = new User(null, null, "User " + login, login,
+                LocalDate.parse("1990-01-01", DateUtil.DATE_FORMATTER), "", LocalDateTime.now());
+        user.setAccount(new BankAccount(null, number, BigDecimal.valueOf(balance), user));
+        return userRepo.save(user).getAccount().getId();
+    }
+
+    public static Long newAccount(UserRepository userRepo, String login, double balance) {
+        return newAccount(userRepo, login, "40817" + login, balance);
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 
 import javax.sql.DataSource;
+import java.util.Map;
 
 @Configuration
 @EnableTransactionManagement(proxyTargetClass = true)
@@ -33,6 +34,8 @@ public class TestConfig {
         em.setDataSource(dataSource());
         em.setPackagesToScan("com.example.bankingservice");
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        em.setJpaPropertyMap(Map.of("hibernate.jdbc.batch_size", 50, "hibernate.order_inserts", true,
+                "hibernate.order_updates", true, "hibernate.generate_statistics", true));
         return em;
     }
 
@@ -18,6 +18,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
@@ -43,7 +44,9 @@ class UserRepositoryTest {
     void init() throws SQLException {
         System.out.println(DELIMITER);
         System.out.println("Test UserRepository.beforeAll");
-        ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("create_tables.sql"));
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
     }
 
     User getNewUser() {
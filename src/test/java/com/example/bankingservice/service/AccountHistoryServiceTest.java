@@ -0,0 +1,104 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.TransactionDirection;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.model.dto.TransactionPageDto;
+import com.example.bankingservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class AccountHistoryServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private AccountHistoryService service;
+    @Autowired
+    private BankTransactionService bankTransactionService;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test AccountHistoryService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void getTransactions() {
+        System.out.println(DELIMITER);
+        System.out.println("Test AccountHistoryService.getTransactions()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", 100);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(bankTransactionService.transfer(payer, receiver, BigDecimal.TEN));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bankTransactionService.transfer(receiver, payer, BigDecimal.valueOf(5)));
+        }
+        List<TransactionDto> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDto page = service.getTransactions(payer, TransactionDirection.BOTH, null, null, cursor, 3)
+                    .orElseThrow();
+            all.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        assertEquals(7, all.size());
+        assertEquals(7, all.stream().map(TransactionDto::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            TransactionDto previous = all.get(i - 1);
+            TransactionDto current = all.get(i);
+            int order = previous.getCreatedAt().compareTo(current.getCreatedAt());
+            assertTrue(order > 0 || order == 0 && previous.getId() > current.getId());
+        }
+        List<TransactionDto> outgoing = service.getTransactions(payer, TransactionDirection.OUTGOING, null, null,
+                null, 10).orElseThrow().getTransactions();
+        assertEquals(4, outgoing.size());
+        assertTrue(outgoing.stream()
+                .allMatch(t -> payer.equals(t.getFromAccountId()) && receiver.equals(t.getToAccountId())));
+        TransactionPageDto incoming = service.getTransactions(payer, TransactionDirection.INCOMING, null, null, null,
+                3).orElseThrow();
+        assertEquals(3, incoming.getTransactions().size());
+        assertNull(incoming.getNextCursor());
+        assertEquals(0, service.getTransactions(payer, TransactionDirection.BOTH, now().plusDays(1), null, null, 10)
+                .orElseThrow().getTransactions().size());
+        assertTrue(service.getTransactions(-1L, TransactionDirection.BOTH, null, null, null, 10).isEmpty());
+        System.out.println("Read " + all.size() + " transactions in " + pages + " pages");
+    }
+}
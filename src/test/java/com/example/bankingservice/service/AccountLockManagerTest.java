@@ -0,0 +1,43 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.dto.LockStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountLockManagerTest {
+    private static final String DELIMITER = "----------------------------------";
+
+    @Test
+    void lockInOppositeOrder() throws InterruptedException {
+        System.out.println(DELIMITER);
+        System.out.println("Test AccountLockManager.lock() (opposite order)");
+        AccountLockManager lockManager = new AccountLockManager(16);
+        int[] counter = new int[1];
+        CountDownLatch done = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.submit(() -> transfer(lockManager, counter, 1L, 2L, done));
+        executor.submit(() -> transfer(lockManager, counter, 2L, 1L, done));
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(20000, counter[0]);
+        LockStatsDto stats = lockManager.getStats();
+        assertTrue(stats.getAcquisitions() > 0);
+        System.out.println("Lock contention " + stats.getContended() + " of " + stats.getAcquisitions());
+    }
+
+    private void transfer(AccountLockManager lockManager, int[] counter, Long from, Long to, CountDownLatch done) {
+        for (int i = 0; i < 10000; i++) {
+            try (AccountLockManager.AccountLock ignored = lockManager.lock(from, to)) {
+                counter[0]++;
+            }
+        }
+        done.countDown();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransactionDto;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class AsyncTransferServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private AsyncTransferService service;
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test AsyncTransferService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void submitAndPoll() throws Exception {
+        System.out.println(DELIMITER);
+        System.out.println("Test AsyncTransferService.submit()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000011", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000012", 100);
+        TransactionDto accepted = service.submit(payer, receiver, BigDecimal.valueOf(300));
+        assertEquals(TransactionStatus.PENDING, accepted.getStatus());
+        TransactionDto completed = service.awaitTransfer(accepted.getTransactionReference(), 5000)
+                .get(10, TimeUnit.SECONDS).orElseThrow();
+        System.out.println("Transfer " + completed.getTransactionReference() + ": " + completed.getStatus());
+        assertEquals(TransactionStatus.SUCCESS, completed.getStatus());
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(400).compareTo(accountRepo.findById(receiver).orElseThrow().getBalance()));
+        assertEquals(TransactionStatus.SUCCESS,
+                transactionService.completeTransfer(accepted.getTransactionReference(), false));
+        assertEquals(TransactionStatus.SUCCESS,
+                transactionService.completeTransfer(accepted.getTransactionReference(), true));
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+
+        TransactionDto overdraft = service.submit(payer, receiver, BigDecimal.valueOf(5000));
+        assertEquals(TransactionStatus.FAILED, service.awaitTransfer(overdraft.getTransactionReference(), 5000)
+                .get(10, TimeUnit.SECONDS).orElseThrow().getStatus());
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+
+        assertThrows(AppRuntimeException.class, () -> service.submit(payer, -1L, BigDecimal.ONE));
+        assertThrows(AppRuntimeException.class, () -> service.submit(payer, receiver, BigDecimal.ZERO));
+        assertTrue(service.getTransfer("unknown-reference").isEmpty());
+        assertEquals(2, service.getStats().getSubmitted());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.LedgerCarryForward;
+import com.example.bankingservice.model.TransactionDirection;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.repository.BalanceSnapshotRepository;
+import com.example.bankingservice.repository.LedgerCarryForwardRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class BalanceSnapshotServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepo;
+    @Autowired
+    private LedgerCarryForwardRepository carryForwardRepo;
+    @Autowired
+    private LedgerReconciliationService reconciliationService;
+    @Autowired
+    private AccountHistoryService historyService;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test BalanceSnapshotService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    void backdateRecentTransactions(LocalDateTime createdAt) {
+        new JdbcTemplate(dataSource).update("UPDATE BankTransaction SET createdAt = ? WHERE createdAt > ?",
+                createdAt, LocalDate.now().minusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void balanceAt() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BalanceSnapshotService.getBalanceAt()");
+        LocalDate today = LocalDate.now();
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000001", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000002", 100);
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(200)));
+        backdateRecentTransactions(today.minusDays(3).atTime(12, 0));
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(30)));
+        assertTrue(transactionService.transfer(receiver, payer, BigDecimal.valueOf(5)));
+        backdateRecentTransactions(today.minusDays(2).atTime(9, 30));
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(50)));
+
+        assertEquals(2, snapshotService.takeSnapshot(today.minusDays(3)));
+        assertEquals(2, snapshotService.takeSnapshot(today.minusDays(2)));
+        assertEquals(0, snapshotService.takeSnapshots());
+        assertThrows(AppRuntimeException.class, () -> snapshotService.takeSnapshot(today.minusDays(2)));
+        snapshotRepo.findAll().forEach(System.out::println);
+
+        assertThrows(AppRuntimeException.class, () -> snapshotService.getBalanceAt(payer,
+                today.minusDays(4).atStartOfDay()));
+        assertBalance(1000, payer, today.minusDays(3).atTime(11, 0), today.minusDays(3));
+        assertBalance(800, payer, today.minusDays(3).atTime(13, 0), today.minusDays(3));
+        assertBalance(800, payer, today.minusDays(2).atStartOfDay(), today.minusDays(3));
+        assertBalance(775, payer, today.minusDays(1).atStartOfDay(), today.minusDays(2));
+        assertBalance(725, payer, LocalDateTime.now().plusMinutes(1), today.minusDays(2));
+        assertBalance(375, receiver, LocalDateTime.now().plusMinutes(1), today.minusDays(2));
+        BigDecimal debitTotal = snapshotRepo
+                .findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(payer, today)
+                .orElseThrow().getDebitTotal();
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(debitTotal));
+        assertTrue(snapshotService.getBalanceAt(-1L, LocalDateTime.now()).isEmpty());
+    }
+
+    @Test
+    void balanceAfterArchive() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BalanceSnapshotService.balanceAfterArchive()");
+        LocalDate today = LocalDate.now();
+        LocalDateTime archivedBefore = today.minusDays(30).atStartOfDay();
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000003", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000004", 100);
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(200)));
+        backdateRecentTransactions(today.minusDays(40).atTime(12, 0));
+        // what the partition maintenance leaves behind when it archives the month of the first transfer
+        carryForwardRepo.saveAll(List.of(
+                new LedgerCarryForward(payer, BigDecimal.valueOf(200), BigDecimal.ZERO, archivedBefore),
+                new LedgerCarryForward(receiver, BigDecimal.ZERO, BigDecimal.valueOf(200), archivedBefore)));
+        new JdbcTemplate(dataSource).update("DELETE FROM BankTransaction WHERE createdAt < ?", archivedBefore);
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(50)));
+
+        assertBalance(750, payer, LocalDateTime.now().plusMinutes(1), null);
+        assertBalance(350, receiver, LocalDateTime.now().plusMinutes(1), null);
+        assertThrows(AppRuntimeException.class, () -> snapshotService.getBalanceAt(payer,
+                today.minusDays(35).atStartOfDay()));
+        assertEquals(2, snapshotService.takeSnapshots());
+        assertBalance(750, payer, LocalDateTime.now().plusMinutes(1), today.minusDays(1));
+        assertTrue(reconciliationService.reconcile().getDiscrepancies().isEmpty());
+        assertEquals(archivedBefore, historyService.getTransactions(payer, TransactionDirection.BOTH, null, null,
+                null, 10).orElseThrow().getArchivedBefore());
+    }
+
+    @Test
+    void snapshotAfterPendingTransfers() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BalanceSnapshotService.snapshotAfterPendingTransfers()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000005", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000006", 100);
+        String reference = transactionService.createPendingTransfer(payer, receiver, BigDecimal.valueOf(300))
+                .getTransactionReference();
+        backdateRecentTransactions(LocalDate.now().minusDays(1).atTime(23, 59));
+
+        assertEquals(0, snapshotService.takeSnapshots());
+        assertThrows(AppRuntimeException.class, () -> snapshotService.takeSnapshot(LocalDate.now().minusDays(1)));
+        assertEquals(TransactionStatus.SUCCESS, transactionService.completeTransfer(reference, false));
+        assertEquals(2, snapshotService.takeSnapshots());
+        assertBalance(700, payer, LocalDate.now().atStartOfDay(), LocalDate.now().minusDays(1));
+        assertBalance(400, receiver, LocalDate.now().atStartOfDay(), LocalDate.now().minusDays(1));
+    }
+
+    private void assertBalance(double expected, Long accountId, LocalDateTime at, LocalDate snapshotDate) {
+        var balance = snapshotService.getBalanceAt(accountId, at).orElseThrow();
+        System.out.println("Balance of " + accountId + " at " + at + ": " + balance.getBalance());
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(balance.getBalance()));
+        if (snapshotDate == null) {
+            assertNull(balance.getSnapshotDate());
+        } else {
+            assertEquals(snapshotDate, balance.getSnapshotDate());
+        }
+    }
+}
@@ -2,7 +2,12 @@ package com.example.bankingservice.service;
 
 import com.example.bankingservice.TestConfig;
 import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.TransactionStatus;
 import com.example.bankingservice.model.User;
+import com.example.bankingservice.model.dto.JournalEntryDto;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
+import com.example.bankingservice.repository.BankAccountRepository;
 import com.example.bankingservice.repository.UserRepository;
 import com.example.bankingservice.util.DateUtil;
 import org.junit.jupiter.api.BeforeAll;
@@ -20,12 +25,17 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static java.time.LocalDateTime.now;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
 
 @ExtendWith(SpringExtension.class)
@@ -40,13 +50,17 @@ class BankTransactionServiceTest {
     @Autowired
     private UserRepository userRepo;
     @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
     private DataSource dataSource;
 
     @BeforeAll
     void init() throws SQLException {
         System.out.println(DELIMITER);
         System.out.println("Test BankTransactionService.beforeAll");
-        ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("create_tables.sql"));
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
     }
 
     User getNewUser() {
@@ -79,6 +93,76 @@ class BankTransactionServiceTest {
 
     }
 
+    @Test
+    void chargeInterestForAccounts() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.chargeInterest(accountIds)");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        User dbTargetUser = userRepo.save(targetUser);
+        assertNotNull(dbUser);
+        assertNotNull(dbTargetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        assertEquals(2, service.chargeInterest(List.of(accountId, targetAccountId)));
+        assertEquals(BigDecimal.valueOf(1050.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(accountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(105.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Charged interest for accounts " + accountId + ", " + targetAccountId);
+    }
+
+    @Test
+    void chargeInterestInDatabase() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.chargeInterestInDatabase()");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        BankAccount capped = new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser);
+        capped.setBalance(BigDecimal.valueOf(200.00));
+        targetUser.setAccount(capped);
+        User dbTargetUser = userRepo.save(targetUser);
+        assertNotNull(dbUser);
+        assertNotNull(dbTargetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        assertEquals(1, service.chargeInterestInDatabase(Math.min(accountId, targetAccountId),
+                Math.max(accountId, targetAccountId)));
+        assertEquals(BigDecimal.valueOf(1050.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(accountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(200.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Charged interest in database for account " + accountId);
+    }
+
+    @Test
+    void chargeInterestOncePerRun() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.chargeInterest(accountIds, runStartedAt)");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        Long accountId = userRepo.save(user).getAccount().getId();
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        Long targetAccountId = userRepo.save(targetUser).getAccount().getId();
+        LocalDateTime firstRun = now().plusSeconds(1);
+        assertEquals(1, service.chargeInterest(List.of(accountId), firstRun));
+        assertEquals(1, service.chargeInterest(List.of(accountId, targetAccountId), firstRun));
+        Long fromId = Math.min(accountId, targetAccountId);
+        Long toId = Math.max(accountId, targetAccountId);
+        assertEquals(0, service.chargeInterestInDatabase(fromId, toId, firstRun));
+        assertEquals(2, service.chargeInterestInDatabase(fromId, toId, firstRun.plusMinutes(1)));
+        assertEquals(0, BigDecimal.valueOf(1102.50)
+                .compareTo(accountRepo.findById(accountId).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(110.25)
+                .compareTo(accountRepo.findById(targetAccountId).orElseThrow().getBalance()));
+    }
+
     @Test
     void increaseBalance() {
         System.out.println(DELIMITER);
@@ -88,9 +172,12 @@ class BankTransactionServiceTest {
         user.setAccount(account);
         User dbUser = userRepo.save(user);
         assertNotNull(dbUser);
-        service.increaseBalance(dbUser.getAccount(), BigDecimal.valueOf(9000.00));
-        assertEquals(BigDecimal.valueOf(10000.00).setScale(2, RoundingMode.HALF_EVEN),
+        assertTrue(service.increaseBalance(dbUser.getAccount(), BigDecimal.valueOf(9000.00)));
+        assertEquals(BigDecimal.valueOf(1000.00).setScale(2, RoundingMode.HALF_EVEN),
                 dbUser.getAccount().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(10000.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(dbUser.getAccount().getId()).orElseThrow().getBalance()
+                        .setScale(2, RoundingMode.HALF_EVEN));
         System.out.println("Increased balance of account " + dbUser.getAccount());
     }
 
@@ -103,9 +190,10 @@ class BankTransactionServiceTest {
         user.setAccount(account);
         User dbUser = userRepo.save(user);
         assertNotNull(dbUser);
-        service.decreaseBalance(dbUser.getAccount(), BigDecimal.valueOf(100.00));
+        assertTrue(service.decreaseBalance(dbUser.getAccount(), BigDecimal.valueOf(100.00)));
         assertEquals(BigDecimal.valueOf(900.00).setScale(2, RoundingMode.HALF_EVEN),
-                dbUser.getAccount().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+                accountRepo.findById(dbUser.getAccount().getId()).orElseThrow().getBalance()
+                        .setScale(2, RoundingMode.HALF_EVEN));
         System.out.println("Decreased balance of account " + dbUser.getAccount());
     }
 
@@ -118,9 +206,12 @@ class BankTransactionServiceTest {
         user.setAccount(account);
         User dbUser = userRepo.save(user);
         assertNotNull(dbUser);
-        service.decreaseBalance(dbUser.getAccount(), BigDecimal.valueOf(1001.00));
+        assertFalse(service.decreaseBalance(dbUser.getAccount(), BigDecimal.valueOf(1001.00)));
         assertEquals(BigDecimal.valueOf(1000.00).setScale(2, RoundingMode.HALF_EVEN),
                 dbUser.getAccount().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(1000.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(dbUser.getAccount().getId()).orElseThrow().getBalance()
+                        .setScale(2, RoundingMode.HALF_EVEN));
         System.out.println("Failed decreasing balance of account less than zero: " + dbUser.getAccount());
     }
 
@@ -141,12 +232,148 @@ class BankTransactionServiceTest {
         User dbTargetUser = userRepo.save(targetUser);
         assertNotNull(dbTargetUser);
 
-        service.internalFundTransfer(dbUser.getAccount(), dbTargetUser.getAccount(), BigDecimal.valueOf(450.00));
+        assertTrue(service.internalFundTransfer(dbUser.getAccount(), dbTargetUser.getAccount(),
+                BigDecimal.valueOf(450.00)));
         assertEquals(BigDecimal.valueOf(550.00).setScale(2, RoundingMode.HALF_EVEN),
-                dbUser.getAccount().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+                accountRepo.findById(dbUser.getAccount().getId()).orElseThrow().getBalance()
+                        .setScale(2, RoundingMode.HALF_EVEN));
         assertEquals(BigDecimal.valueOf(550.00).setScale(2, RoundingMode.HALF_EVEN),
-                dbTargetUser.getAccount().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+                accountRepo.findById(dbTargetUser.getAccount().getId()).orElseThrow().getBalance()
+                        .setScale(2, RoundingMode.HALF_EVEN));
         System.out.println("Internal fund transfer from account " + dbUser.getAccount()
                 + " to account " + dbTargetUser.getAccount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void transferOptimistic() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.transferOptimistic()");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        User dbTargetUser = userRepo.save(targetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        assertTrue(service.transferOptimistic(accountId, targetAccountId, BigDecimal.valueOf(450.00)));
+        assertFalse(service.transferOptimistic(accountId, targetAccountId, BigDecimal.valueOf(600.00)));
+        BankAccount fromAccount = accountRepo.findById(accountId).orElseThrow();
+        assertEquals(BigDecimal.valueOf(550.00).setScale(2, RoundingMode.HALF_EVEN),
+                fromAccount.getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(1L, fromAccount.getVersion());
+        assertEquals(BigDecimal.valueOf(550.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Optimistic transfer from account " + accountId + " to account " + targetAccountId);
+    }
+
+    @Test
+    void applyTransfers() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.applyTransfers()");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        User dbTargetUser = userRepo.save(targetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        List<TransferResultDto> results = service.applyTransfers(List.of(
+                new TransferEntryDto(accountId, targetAccountId, BigDecimal.valueOf(600.00)),
+                new TransferEntryDto(accountId, targetAccountId, BigDecimal.valueOf(600.00)),
+                new TransferEntryDto(targetAccountId, accountId, BigDecimal.valueOf(700.00))));
+        assertEquals(TransactionStatus.SUCCESS, results.get(0).getStatus());
+        assertEquals(TransactionStatus.FAILED, results.get(1).getStatus());
+        assertEquals(BankTransactionService.INSUFFICIENT_FUNDS, results.get(1).getMessage());
+        assertEquals(TransactionStatus.SUCCESS, results.get(2).getStatus());
+        assertEquals(BigDecimal.valueOf(1100.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(accountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(0.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Applied transfers between accounts " + accountId + " and " + targetAccountId);
+    }
+
+    @Test
+    void applyTransfersAllOrNothing() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.applyTransfers(atomic)");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        User dbTargetUser = userRepo.save(targetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        List<TransferResultDto> results = service.applyTransfers(List.of(
+                new TransferEntryDto(accountId, targetAccountId, BigDecimal.valueOf(600.00)),
+                new TransferEntryDto(accountId, targetAccountId, BigDecimal.valueOf(600.00))), true);
+        assertEquals(TransactionStatus.FAILED, results.get(0).getStatus());
+        assertEquals(TransactionStatus.FAILED, results.get(1).getStatus());
+        assertEquals(BankTransactionService.INSUFFICIENT_FUNDS, results.get(1).getMessage());
+        assertEquals(BigDecimal.valueOf(1000.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(accountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+
+        results = service.applyTransfers(List.of(
+                new TransferEntryDto(accountId, targetAccountId, BigDecimal.valueOf(600.00)),
+                new TransferEntryDto(targetAccountId, accountId, BigDecimal.valueOf(50.00))), true);
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == TransactionStatus.SUCCESS));
+        assertEquals(BigDecimal.valueOf(650.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    void applyJournalEntries() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.applyJournalEntries()");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        User dbUser = userRepo.save(user);
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(100.00), targetUser));
+        User dbTargetUser = userRepo.save(targetUser);
+        Long accountId = dbUser.getAccount().getId();
+        Long targetAccountId = dbTargetUser.getAccount().getId();
+        List<JournalEntryDto> entries = List.of(
+                new JournalEntryDto("journal-1", accountId, targetAccountId, BigDecimal.valueOf(300.00)),
+                new JournalEntryDto("journal-2", targetAccountId, accountId, BigDecimal.valueOf(50.00)));
+        service.applyJournalEntries(entries);
+        service.applyJournalEntries(entries);
+        service.applyJournalEntries(List.of(
+                new JournalEntryDto("journal-3", targetAccountId, accountId, BigDecimal.valueOf(100.00))));
+        assertEquals(TransactionStatus.SUCCESS, service.getByTransactionReference("journal-3").orElseThrow().getStatus());
+        assertEquals(BigDecimal.valueOf(850.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(accountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(BigDecimal.valueOf(250.00).setScale(2, RoundingMode.HALF_EVEN),
+                accountRepo.findById(targetAccountId).orElseThrow().getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Replayed journal entries between accounts " + accountId + " and " + targetAccountId);
+    }
+
+    @Test
+    void materializeInterest() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.materializeInterest()");
+        User user = getNewUser();
+        user.setAccount(getNewBankAccount(user));
+        Long accountId = userRepo.save(user).getAccount().getId();
+        User targetUser = getNewTargetUser();
+        targetUser.setAccount(new BankAccount(2L, "40817987654312", BigDecimal.valueOf(1000.00), targetUser));
+        Long chargedAccountId = userRepo.save(targetUser).getAccount().getId();
+        BankAccount account = accountRepo.findById(accountId).orElseThrow();
+        account.setAccruedAt(now().minusMinutes(20).minusSeconds(30));
+        accountRepo.save(account);
+        for (int i = 0; i < 20; i++) {
+            service.chargeInterest(List.of(chargedAccountId));
+        }
+        assertEquals(1, service.materializeInterest(List.of(accountId)));
+        assertEquals(0, service.materializeInterest(List.of(accountId)));
+        BigDecimal charged = accountRepo.findById(chargedAccountId).orElseThrow().getBalance();
+        BankAccount materialized = accountRepo.findById(accountId).orElseThrow();
+        System.out.println("Charged every minute: " + charged + ", materialized once: " + materialized.getBalance());
+        assertEquals(0, charged.compareTo(materialized.getBalance()));
+        assertEquals(BigDecimal.valueOf(1979.95).setScale(2, RoundingMode.HALF_EVEN),
+                materialized.getBalance().setScale(2, RoundingMode.HALF_EVEN));
+        assertTrue(materialized.getAccruedAt().isAfter(now().minusMinutes(1)));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.repository.BalanceSlotRepository;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.DateUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class HotAccountServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
+    private BalanceSlotRepository slotRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test HotAccountService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void depositAndWithdrawThroughSlots() {
+        System.out.println(DELIMITER);
+        System.out.println("Test HotAccountService.depositAndWithdrawThroughSlots()");
+        User user = new User(null, 1L, "Merchant", "merchant",
+                LocalDate.parse("2003-12-30", DateUtil.DATE_FORMATTER), "", now());
+        user.setAccount(new BankAccount(1L, "40817123456789", BigDecimal.valueOf(100.00), user));
+        Long accountId = userRepo.save(user).getAccount().getId();
+        HotAccountService service = new HotAccountService(slotRepo, accountRepo, accountId.toString(), 4);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> service.rebalance());
+        assertEquals(4, slotRepo.findSlotsByAccountId(accountId).size());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(inTransaction(transaction, () -> service.deposit(accountId, BigDecimal.valueOf(10.00))));
+        }
+        assertEquals(scaled(100.00), accountRepo.findBalanceById(accountId).orElseThrow().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(scaled(200.00), service.getBalance(accountId).orElseThrow().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(scaled(100.00), service.getSlotTotals(List.of(accountId, -1L)).get(accountId)
+                .setScale(2, RoundingMode.HALF_EVEN));
+        assertTrue(inTransaction(transaction, () -> service.withdraw(accountId, BigDecimal.valueOf(150.00))));
+        assertFalse(inTransaction(transaction, () -> service.withdraw(accountId, BigDecimal.valueOf(60.00))));
+        assertEquals(scaled(50.00), service.getBalance(accountId).orElseThrow().setScale(2, RoundingMode.HALF_EVEN));
+        assertEquals(scaled(50.00), accountRepo.findBalanceById(accountId).orElseThrow().setScale(2, RoundingMode.HALF_EVEN));
+        assertTrue(inTransaction(transaction, () -> service.deposit(accountId, BigDecimal.valueOf(10.00))));
+        assertTrue(inTransaction(transaction, () -> service.consolidate(accountId).signum() > 0));
+        assertEquals(scaled(60.00), accountRepo.findBalanceById(accountId).orElseThrow().setScale(2, RoundingMode.HALF_EVEN));
+        System.out.println("Hot account balance " + service.getBalance(accountId).orElseThrow());
+    }
+
+    private boolean inTransaction(TransactionTemplate transaction, Supplier<Boolean> action) {
+        return Boolean.TRUE.equals(transaction.execute(status -> action.get()));
+    }
+
+    private BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.repository.IdempotencyKeyRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class IdempotencyServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private IdempotencyService service;
+    @Autowired
+    private IdempotencyKeyRepository keyRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void replayFromCache() {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.replayFromCache()");
+        AtomicInteger calls = new AtomicInteger();
+        BigDecimal amount = BigDecimal.valueOf(100.00);
+        assertTrue(service.transfer("cache-key", 1L, 2L, amount, () -> calls.incrementAndGet() > 0));
+        long hits = service.getStats().getCacheHits();
+        assertTrue(service.transfer("cache-key", 1L, 2L, amount, () -> calls.incrementAndGet() > 0));
+        assertEquals(1, calls.get());
+        assertEquals(hits + 1, service.getStats().getCacheHits());
+        assertEquals(TransactionStatus.SUCCESS, keyRepo.findByPrincipalNameAndIdempotencyKey("", "cache-key").orElseThrow().getStatus());
+        assertThrows(AppRuntimeException.class,
+                () -> service.transfer("cache-key", 1L, 2L, BigDecimal.TEN, () -> calls.incrementAndGet() > 0));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void replayFromDatabase() {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.replayFromDatabase()");
+        AtomicInteger calls = new AtomicInteger();
+        BigDecimal amount = BigDecimal.valueOf(100.00);
+        assertFalse(service.transfer("stored-key", 1L, 2L, amount, () -> calls.incrementAndGet() < 0));
+        IdempotencyService restarted = new IdempotencyService(keyRepo, transactionManager, 10, 60, 30,
+                TransferMode.ATOMIC);
+        assertFalse(restarted.transfer("stored-key", 1L, 2L, amount, () -> calls.incrementAndGet() > 0));
+        assertEquals(1, calls.get());
+        assertEquals(1, restarted.getStats().getDatabaseHits());
+    }
+
+    @Test
+    void releaseKeyOnError() {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.releaseKeyOnError()");
+        BigDecimal amount = BigDecimal.valueOf(100.00);
+        assertThrows(AppRuntimeException.class, () -> service.transfer("failed-key", 1L, 2L, amount, () -> {
+            throw new AppRuntimeException("Account not found");
+        }));
+        assertTrue(keyRepo.findByPrincipalNameAndIdempotencyKey("", "failed-key").isEmpty());
+        assertTrue(service.transfer("failed-key", 1L, 2L, amount, () -> true));
+    }
+
+    @Test
+    void rejectOutsideTransactionalModes() {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.rejectOutsideTransactionalModes()");
+        BigDecimal amount = BigDecimal.valueOf(100.00);
+        for (TransferMode mode : List.of(TransferMode.BATCHED, TransferMode.PARTITIONED, TransferMode.JOURNAL)) {
+            IdempotencyService unsupported = new IdempotencyService(keyRepo, transactionManager, 10, 60, 30, mode);
+            assertThrows(AppRuntimeException.class, () -> unsupported.transfer("mode-key", 1L, 2L, amount, () -> true));
+        }
+        assertTrue(keyRepo.findByPrincipalNameAndIdempotencyKey("", "mode-key").isEmpty());
+    }
+
+    @Test
+    void scopeByPrincipal() {
+        System.out.println(DELIMITER);
+        System.out.println("Test IdempotencyService.scopeByPrincipal()");
+        AtomicInteger calls = new AtomicInteger();
+        assertTrue(service.transfer("shared-key", 1L, 2L, BigDecimal.ONE, () -> calls.incrementAndGet() > 0));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other", null));
+        try {
+            assertTrue(service.transfer("shared-key", 3L, 4L, BigDecimal.TEN, () -> calls.incrementAndGet() > 0));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertEquals(2, calls.get());
+        assertEquals(1L, keyRepo.findByPrincipalNameAndIdempotencyKey("", "shared-key").orElseThrow()
+                .getFromAccountId());
+        assertEquals(3L, keyRepo.findByPrincipalNameAndIdempotencyKey("other", "shared-key").orElseThrow()
+                .getFromAccountId());
+    }
+}
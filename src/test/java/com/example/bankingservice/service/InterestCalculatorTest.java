@@ -0,0 +1,49 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.AccrualMode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InterestCalculatorTest {
+    private static final String DELIMITER = "----------------------------------";
+
+    @Test
+    void projectMatchesChargeEveryMinute() {
+        System.out.println(DELIMITER);
+        System.out.println("Test InterestCalculator.project()");
+        InterestCalculator calculator = new InterestCalculator(AccrualMode.LAZY);
+        LocalDateTime accruedAt = LocalDateTime.of(2026, 1, 1, 12, 0, 30);
+        double[][] accounts = {{1000, 1000}, {1000, 300}, {1000, 0.01}, {0.10, 0.10}, {77.77, 150.03}, {500, 0}};
+        for (double[] account : accounts) {
+            BigDecimal initialBalance = BigDecimal.valueOf(account[0]).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal balance = BigDecimal.valueOf(account[1]).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal charged = balance;
+            for (int minute = 0; minute <= 400; minute++) {
+                InterestCalculator.Accrual accrual = calculator.project(balance, initialBalance, accruedAt,
+                        accruedAt.plusMinutes(minute).plusSeconds(59));
+                assertEquals(minute, accrual.minutes());
+                assertEquals(0, charged.compareTo(accrual.balance()),
+                        "initial " + initialBalance + ", balance " + balance + ", minute " + minute);
+                charged = charge(charged, initialBalance);
+            }
+            System.out.println(initialBalance + " / " + balance + " -> " + charged);
+        }
+        assertEquals(0, calculator.project(BigDecimal.TEN, BigDecimal.TEN, null, accruedAt).minutes());
+    }
+
+    // one tick of the per-minute scheduler, with the balance rounded to the column scale as the database does
+    private static BigDecimal charge(BigDecimal balance, BigDecimal initialBalance) {
+        BigDecimal amount = balance.multiply(InterestCalculator.BALANCE_INCREASE_PERCENTAGE);
+        BigDecimal increased = balance.add(amount);
+        if (balance.signum() > 0 &&
+                increased.compareTo(initialBalance.multiply(InterestCalculator.BALANCE_MULTIPLY_LIMIT)) <= 0) {
+            return increased.setScale(2, RoundingMode.HALF_UP);
+        }
+        return balance;
+    }
+}
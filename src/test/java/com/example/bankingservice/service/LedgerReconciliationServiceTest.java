@@ -0,0 +1,102 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.dto.LedgerDiscrepancyDto;
+import com.example.bankingservice.model.dto.ReconciliationReportDto;
+import com.example.bankingservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class LedgerReconciliationServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private LedgerReconciliationService service;
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test LedgerReconciliationService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void reconcile() {
+        System.out.println(DELIMITER);
+        System.out.println("Test LedgerReconciliationService.reconcile()");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000021", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000022", 100);
+        Long idle = TestAccounts.newAccount(userRepo, "idle", "40817000000000000023", 50);
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(200)));
+        jdbcTemplate.update("UPDATE BankTransaction SET createdAt = ?", LocalDateTime.now().minusDays(1));
+
+        ReconciliationReportDto full = service.reconcile();
+        assertTrue(full.isFullScan());
+        assertEquals(3, full.getAccountsChecked());
+        assertTrue(full.getDiscrepancies().isEmpty());
+
+        jdbcTemplate.update("UPDATE BankAccount SET balance = balance + 10 WHERE id IN (?, ?)", payer, idle);
+        ReconciliationReportDto untouched = service.reconcile();
+        assertFalse(untouched.isFullScan());
+        assertEquals(0, untouched.getAccountsChecked());
+
+        assertTrue(transactionService.transfer(receiver, payer, BigDecimal.valueOf(5)));
+        ReconciliationReportDto incremental = service.reconcile();
+        System.out.println("Run " + incremental.getRunId() + " since " + incremental.getSince() + ": " +
+                incremental.getAccountsChecked() + " accounts");
+        assertEquals(2, incremental.getAccountsChecked());
+        assertEquals(1, incremental.getDiscrepancies().size());
+        LedgerDiscrepancyDto discrepancy = incremental.getDiscrepancies().get(0);
+        assertEquals(payer, discrepancy.getAccountId());
+        assertEquals(0, BigDecimal.valueOf(815).compareTo(discrepancy.getBalance()));
+        assertEquals(0, BigDecimal.TEN.compareTo(discrepancy.getDifference()));
+        assertEquals(incremental.getRunId(), service.getLastReport().orElseThrow().getRunId());
+        assertEquals(1, service.getLastReport().orElseThrow().getDiscrepancies().size());
+
+        jdbcTemplate.update("UPDATE ReconciliationRun SET startedAt = ? WHERE fullScan",
+                LocalDateTime.now().minusDays(8));
+        ReconciliationReportDto scheduledFull = service.reconcile();
+        assertTrue(scheduledFull.isFullScan());
+        assertEquals(2, scheduledFull.getDiscrepancies().size());
+
+        assertEquals(2, service.runReconciliation(true).getDiscrepancies().size());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.TransferMode;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class PartitionedAccountExecutorTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private BankTransactionRepository transactionRepo;
+    @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+    private PartitionedAccountExecutor executor;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test PartitionedAccountExecutor.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+        executor = new PartitionedAccountExecutor(transactionService, 2, 100, 1000, TransferMode.PARTITIONED);
+        executor.start();
+    }
+
+    @AfterAll
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void refundFailedCredit() throws Exception {
+        System.out.println(DELIMITER);
+        System.out.println("Test PartitionedAccountExecutor.transfer() (refund)");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000041", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000042", 100);
+        assertTrue(executor.transfer(payer, receiver, BigDecimal.TEN).get(10, TimeUnit.SECONDS));
+
+        // unknown targets land in either partition; a cross-partition one is debited first and then refunded
+        long refunded = 0;
+        for (long missing = receiver + 1000; refunded == 0 && missing < receiver + 1020; missing++) {
+            long target = missing;
+            assertThrows(ExecutionException.class,
+                    () -> executor.transfer(payer, target, BigDecimal.ONE).get(10, TimeUnit.SECONDS));
+            refunded = transactionRepo.findAll().stream()
+                    .filter(t -> t.getStatus() == TransactionStatus.FAILED).count();
+        }
+        assertEquals(1, refunded);
+        BankTransaction failed = transactionRepo.findAll().stream()
+                .filter(t -> t.getStatus() == TransactionStatus.FAILED).findFirst().orElseThrow();
+        System.out.println("Refunded transfer " + failed.getTransactionReference());
+        assertEquals(payer, failed.getFromAccount().getId());
+        assertEquals(0, BigDecimal.valueOf(990).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(accountRepo.findById(receiver).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void refundInterruptedTransfers() {
+        System.out.println(DELIMITER);
+        System.out.println("Test PartitionedAccountExecutor.start() (refund)");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000043", 1000);
+        // a debit leg whose credit was lost when the service stopped
+        String reference = transactionService.beginTransfer(payer, BigDecimal.valueOf(300));
+        assertEquals(TransactionStatus.PROCESSING,
+                transactionService.getByTransactionReference(reference).orElseThrow().getStatus());
+
+        PartitionedAccountExecutor restarted = new PartitionedAccountExecutor(transactionService, 2, 100, 1000,
+                TransferMode.PARTITIONED);
+        restarted.start();
+        restarted.shutdown();
+        assertEquals(TransactionStatus.FAILED,
+                transactionService.getByTransactionReference(reference).orElseThrow().getStatus());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+        assertThrows(AppRuntimeException.class, () -> restarted.transfer(payer, payer, BigDecimal.ONE));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.ExportFormat;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class TransactionExportServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private TransactionExportService service;
+    @Autowired
+    private BankTransactionService bankTransactionService;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionExportService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    List<String> export(ExportFormat format, TransactionStatus status) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = service.export(output, format, null, null, status);
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(rows, format == ExportFormat.CSV ? lines.size() - 1 : lines.size());
+        return lines;
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export() throws IOException {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionExportService.export()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", 100);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bankTransactionService.transfer(payer, receiver, BigDecimal.TEN));
+        }
+        List<String> ndjson = export(ExportFormat.NDJSON, null);
+        assertEquals(5, ndjson.size());
+        assertTrue(ndjson.get(0).startsWith("{\"id\":"));
+        assertTrue(ndjson.get(0).contains("\"fromAccountId\":" + payer));
+        List<String> csv = export(ExportFormat.CSV, TransactionStatus.SUCCESS);
+        assertEquals(6, csv.size());
+        assertEquals("id,transactionReference,fromAccountId,toAccountId,amount,status,createdAt", csv.get(0));
+        assertEquals(7, csv.get(1).split(",", -1).length);
+        assertEquals(1, export(ExportFormat.CSV, TransactionStatus.FAILED).size());
+        System.out.println("Exported " + ndjson.size() + " transactions");
+    }
+
+    @Test
+    @WithMockUser
+    void exportRequiresAdmin() {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionExportService.export() (not admin)");
+        assertThrows(AccessDeniedException.class, () -> export(ExportFormat.NDJSON, null));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankTransaction;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.repository.BankTransactionRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class TransactionPartitionServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private TransactionPartitionService partitionService;
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private BankTransactionRepository transactionRepo;
+    @Autowired
+    private TransactionReferenceGenerator referenceGenerator;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionPartitionService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void plan() {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionPartitionService.plan()");
+        YearMonth current = YearMonth.of(2026, 10);
+        TransactionPartitionService.Plan plan = partitionService.plan(current,
+                List.of(YearMonth.of(2025, 9), YearMonth.of(2025, 10), YearMonth.of(2026, 10), YearMonth.of(2026, 12)));
+        System.out.println(plan);
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2027, 1)), plan.create());
+        assertEquals(List.of(YearMonth.of(2025, 9)), plan.archive());
+        assertEquals("BankTransaction_2026_10", TransactionPartitionService.partitionName(current));
+        TransactionPartitionService.Plan disabled = partitionService.maintain();
+        assertTrue(disabled.create().isEmpty() && disabled.archive().isEmpty());
+    }
+
+    @Test
+    void findByReferenceWithinCreationWindow() {
+        System.out.println(DELIMITER);
+        System.out.println("Test BankTransactionService.getByTransactionReference()");
+        String recent = referenceGenerator.next();
+        String interest = referenceGenerator.next() + "-42";
+        String replayed = referenceGenerator.lowerBound(Instant.parse("2020-01-01T00:00:00Z")) + "0".repeat(16);
+        transactionRepo.saveAll(List.of(
+                new BankTransaction(recent, null, null, BigDecimal.ONE, TransactionStatus.SUCCESS),
+                new BankTransaction(interest, null, null, BigDecimal.TEN, TransactionStatus.SUCCESS),
+                new BankTransaction(replayed, null, null, BigDecimal.valueOf(2), TransactionStatus.SUCCESS),
+                new BankTransaction("external-reference", null, null, BigDecimal.ZERO, TransactionStatus.FAILED)));
+        assertEquals(0, BigDecimal.ONE.compareTo(transactionService.getByTransactionReference(recent)
+                .orElseThrow().getAmount()));
+        assertEquals(0, BigDecimal.TEN.compareTo(transactionService.getByTransactionReference(interest)
+                .orElseThrow().getAmount()));
+        assertEquals(0, BigDecimal.valueOf(2).compareTo(transactionService.getByTransactionReference(replayed)
+                .orElseThrow().getAmount()));
+        assertEquals(TransactionStatus.FAILED, transactionService.getByTransactionReference("external-reference")
+                .orElseThrow().getStatus());
+        assertTrue(transactionService.getByTransactionReference(referenceGenerator.next()).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.model.ReferenceFormat;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionReferenceGeneratorTest {
+    private static final String DELIMITER = "----------------------------------";
+    private static final int THREADS = 4;
+    private static final int REFERENCES_PER_THREAD = 50_000;
+
+    @Test
+    void timeOrderedReferences() {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionReferenceGenerator.timeOrderedReferences()");
+        TransactionReferenceGenerator generator = new TransactionReferenceGenerator(ReferenceFormat.TIME_ORDERED, 7);
+        Instant before = Instant.ofEpochMilli(System.currentTimeMillis());
+        String previous = generator.next();
+        for (int i = 0; i < 1000; i++) {
+            String next = generator.next();
+            assertEquals(26, next.length());
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+        String stored = generator.toReference(generator.nextId());
+        assertEquals(26, stored.length());
+        assertTrue(stored.compareTo(previous) > 0);
+        previous = stored;
+        Instant timestamp = generator.timestampOf(previous);
+        assertTrue(!timestamp.isBefore(before) && !timestamp.isAfter(Instant.now()));
+        assertTrue(generator.lowerBound(before).compareTo(previous) <= 0);
+        assertTrue(generator.lowerBound(Instant.now().plusMillis(1)).compareTo(previous) > 0);
+    }
+
+    @Test
+    void benchmarkAgainstUuid() throws Exception {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransactionReferenceGenerator.benchmarkAgainstUuid()");
+        Result uuid = run(new TransactionReferenceGenerator(ReferenceFormat.UUID, 0));
+        Result timeOrdered = run(new TransactionReferenceGenerator(ReferenceFormat.TIME_ORDERED, 0));
+        System.out.printf("UUID:         %,d refs/s, %.1f%% right-edge inserts, %d chars%n",
+                uuid.perSecond, uuid.rightEdgeShare * 100, uuid.length);
+        System.out.printf("TIME_ORDERED: %,d refs/s, %.1f%% right-edge inserts, %d chars%n",
+                timeOrdered.perSecond, timeOrdered.rightEdgeShare * 100, timeOrdered.length);
+        assertTrue(timeOrdered.rightEdgeShare > uuid.rightEdgeShare);
+        assertTrue(timeOrdered.length < uuid.length);
+    }
+
+    private Result run(TransactionReferenceGenerator generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> references = new ArrayList<>(REFERENCES_PER_THREAD);
+                    for (int i = 0; i < REFERENCES_PER_THREAD; i++) {
+                        references.add(generator.next());
+                    }
+                    return references;
+                }));
+            }
+            List<List<String>> batches = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                batches.add(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            Set<String> unique = new HashSet<>();
+            batches.forEach(unique::addAll);
+            assertEquals(THREADS * REFERENCES_PER_THREAD, unique.size());
+            return new Result(THREADS * REFERENCES_PER_THREAD * 1_000_000_000L / elapsed,
+                    rightEdgeShare(batches), batches.get(0).get(0).length());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private double rightEdgeShare(List<List<String>> batches) {
+        TreeSet<String> index = new TreeSet<>();
+        long rightEdge = 0;
+        long total = 0;
+        for (int i = 0; i < REFERENCES_PER_THREAD; i++) {
+            for (List<String> batch : batches) {
+                String reference = batch.get(i);
+                if (index.isEmpty() || reference.compareTo(index.last()) > 0) {
+                    rightEdge++;
+                }
+                index.add(reference);
+                total++;
+            }
+        }
+        return (double) rightEdge / total;
+    }
+
+    private record Result(long perSecond, double rightEdgeShare, int length) {
+    }
+}
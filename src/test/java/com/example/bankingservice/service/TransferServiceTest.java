@@ -0,0 +1,79 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BatchMode;
+import com.example.bankingservice.model.TransactionStatus;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.model.dto.TransferResultDto;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class TransferServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private TransferService service;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransferService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void transferBatch() {
+        System.out.println(DELIMITER);
+        System.out.println("Test TransferService.transferBatch()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000051", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000052", 100);
+        TransferEntryDto entry = new TransferEntryDto(payer, receiver, BigDecimal.valueOf(600));
+        assertThrows(AppRuntimeException.class,
+                () -> service.transferBatch(Arrays.asList(entry, null), BatchMode.BEST_EFFORT));
+        assertThrows(AppRuntimeException.class,
+                () -> service.transferBatch(Arrays.asList(null, entry), BatchMode.ALL_OR_NOTHING));
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(accountRepo.findById(payer).orElseThrow().getBalance()));
+
+        List<TransferResultDto> results = service.transferBatch(List.of(entry, entry), BatchMode.BEST_EFFORT);
+        assertEquals(TransactionStatus.SUCCESS, results.get(0).getStatus());
+        assertEquals(TransactionStatus.FAILED, results.get(1).getStatus());
+        assertEquals(BankTransactionService.INSUFFICIENT_FUNDS, results.get(1).getMessage());
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(accountRepo.findById(receiver).orElseThrow().getBalance()));
+    }
+}
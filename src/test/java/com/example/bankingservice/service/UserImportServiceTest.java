@@ -0,0 +1,96 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.dto.ImportProgressDto;
+import com.example.bankingservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class UserImportServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private UserImportService service;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserImportService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    String user(int i, String login, String dateOfBirth) {
+        return "{\"username\":\"User " + i + "\",\"login\":\"" + login + "\",\"dateOfBirth\":\"" + dateOfBirth + "\"," +
+                "\"account\":{\"number\":\"40817" + i + "\",\"balance\":100.00}," +
+                "\"phones\":[{\"number\":\"7900" + i + "\"}],\"emails\":[{\"content\":\"user" + i + "@mail.com\"}]}";
+    }
+
+    @Test
+    void importNdjson() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserImportService.importUsers(ndjson)");
+        String body = String.join("\n",
+                user(1, "user1", "2000-01-01"),
+                user(2, "user2", "not-a-date"),
+                user(3, "user1", "2000-01-01"),
+                user(4, "user4", "2000-01-01"));
+        ImportProgressDto result = service.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        assertFalse(result.isRunning());
+        assertNull(result.getFailure());
+        assertEquals(4, result.getRowsRead());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(2, result.getRowsFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals(2, userRepo.count());
+        System.out.println("Imported " + result.getRowsImported() + " users, errors " + result.getErrors().size());
+    }
+
+    @Test
+    void importJsonArray() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserImportService.importUsers(array)");
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1100; i++) {
+            body.append(i == 0 ? "" : ",").append(user(i, "login" + i, "1990-05-05"));
+        }
+        body.append("]");
+        ImportProgressDto result = service.importUsers(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1100, result.getRowsImported());
+        assertEquals(2, result.getChunksCommitted());
+        assertEquals(1100, userRepo.count());
+        assertEquals(result.getJobId(), service.getProgress(result.getJobId()).orElseThrow().getJobId());
+        System.out.println("Imported " + result.getRowsImported() + " users at " + result.getRowsPerSecond() + " rows/s");
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.bankingservice.service;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.Email;
+import com.example.bankingservice.model.Phone;
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.model.dto.UserDto;
+import com.example.bankingservice.repository.BankAccountRepository;
+import com.example.bankingservice.repository.EmailRepository;
+import com.example.bankingservice.repository.PhoneRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.util.AppRuntimeException;
+import com.example.bankingservice.util.DateUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class UserServiceTest {
+    private static final String DELIMITER = "----------------------------------";
+    private static final int USERS = 3000;
+    @Autowired
+    private UserService service;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BankAccountRepository accountRepo;
+    @Autowired
+    private PhoneRepository phoneRepo;
+    @Autowired
+    private EmailRepository emailRepo;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserService.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void createUsersInBatches() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserService.createUsers()");
+        List<User> users = new ArrayList<>(USERS);
+        LocalDate dateOfBirth = LocalDate.parse("2003-12-30", DateUtil.DATE_FORMATTER);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User(null, null, "User " + i, "user" + i, dateOfBirth, "", now());
+            user.setAccount(new BankAccount(null, "40817" + i, BigDecimal.valueOf(100.00), user));
+            user.getPhones().add(new Phone(null, user, "7900" + i));
+            user.getEmails().add(new Email(null, user, "user" + i + "@example.com"));
+            users.add(user);
+        }
+        long start = System.nanoTime();
+        List<User> created = service.createUsers(users);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(USERS, created.size());
+        assertNotNull(created.get(USERS - 1).getAccount().getId());
+        assertEquals(USERS, userRepo.count());
+        assertEquals(USERS, accountRepo.count());
+        assertEquals(USERS, phoneRepo.count());
+        assertEquals(USERS, emailRepo.count());
+        System.out.println("Created " + USERS + " users with accounts, phones and emails in " + millis + " ms");
+    }
+
+    @Test
+    void rejectDuplicatePhonesAndEmails() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserService.createUser() (duplicates)");
+        LocalDate dateOfBirth = LocalDate.parse("2003-12-30", DateUtil.DATE_FORMATTER);
+        User first = new User(null, null, "User first", "first", dateOfBirth, "", now());
+        first.getPhones().add(new Phone(null, first, "79990000001"));
+        first.getEmails().add(new Email(null, first, "first@example.com"));
+        service.createUser(first);
+
+        User samePhone = new User(null, null, "User phone", "phone", dateOfBirth, "", now());
+        samePhone.getPhones().add(new Phone(null, samePhone, "79990000001"));
+        samePhone.getEmails().add(new Email(null, samePhone, "phone@example.com"));
+        AppRuntimeException phoneError = assertThrows(AppRuntimeException.class, () -> service.createUser(samePhone));
+        assertTrue(phoneError.getMessage().startsWith("phones - Phone number is already in use"));
+
+        User sameEmail = new User(null, null, "User email", "email", dateOfBirth, "", now());
+        sameEmail.getPhones().add(new Phone(null, sameEmail, "79990000002"));
+        sameEmail.getEmails().add(new Email(null, sameEmail, "first@example.com"));
+        AppRuntimeException emailError = assertThrows(AppRuntimeException.class,
+                () -> service.createUsers(List.of(sameEmail)));
+        assertTrue(emailError.getMessage().startsWith("emails - Email is already in use"));
+        assertEquals(1, userRepo.count());
+    }
+
+    @Test
+    void scrollUsersByCursor() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserService.getUsersByUsername()");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String name = "Scroll " + (char) ('a' + i % 5);
+            User user = new User(null, null, name, "scroll" + i, LocalDate.of(1990, 1, 1 + i), "", now());
+            user.setAccount(new BankAccount(null, "40817" + i, BigDecimal.valueOf(100.00), user));
+            users.add(user);
+        }
+        service.createUsers(users);
+        List<User> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Window<User> window = service.getUsersByUsername("Scroll", cursor, 10, Sort.Direction.ASC, "username");
+            seen.addAll(window.getContent());
+            cursor = service.nextCursor(window, Sort.Direction.ASC, "username").orElse(null);
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().map(User::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            User previous = seen.get(i - 1);
+            User current = seen.get(i);
+            int order = previous.getUsername().compareTo(current.getUsername());
+            assertTrue(order < 0 || order == 0 && previous.getId() < current.getId());
+        }
+        Window<User> desc = service.getUsersByDateOfBirth(LocalDate.of(1990, 1, 20), null, 10,
+                Sort.Direction.DESC, "dateOfBirth");
+        assertEquals(5, desc.size());
+        assertEquals(LocalDate.of(1990, 1, 25), desc.getContent().get(0).getDateOfBirth());
+        assertThrows(AppRuntimeException.class,
+                () -> service.getUsers(null, 10, Sort.Direction.ASC, "passwordHash"));
+        assertThrows(AppRuntimeException.class,
+                () -> service.getUsers("not-a-cursor", 10, Sort.Direction.ASC, "username"));
+    }
+
+    @Test
+    void loadUserDtosWithConstantQueries() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserService.toDtos()");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = new User(null, null, "Dto " + i, "dto" + i, LocalDate.of(1995, 5, 5), "", now());
+            user.setAccount(new BankAccount(null, "40817" + i, BigDecimal.valueOf(100.00), user));
+            user.getPhones().add(new Phone(null, user, "7901" + i));
+            user.getPhones().add(new Phone(null, user, "7902" + i));
+            user.getEmails().add(new Email(null, user, "dto" + i + "@example.com"));
+            users.add(user);
+        }
+        service.createUsers(users);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<UserDto> dtos = service.toDtos(
+                service.getUsers(null, 50, Sort.Direction.ASC, "login").getContent());
+        assertEquals(50, dtos.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+        UserDto first = dtos.get(0);
+        assertEquals("dto0", first.getLogin());
+        assertEquals(List.of("79010", "79020"), first.getPhones());
+        assertEquals(List.of("dto0@example.com"), first.getEmails());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(first.getAccount().getBalance()));
+        System.out.println("Loaded " + dtos.size() + " users in " + statistics.getPrepareStatementCount() + " queries");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bankingservice.service.outbox;
+
+import com.example.bankingservice.TestAccounts;
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.OutboxEvent;
+import com.example.bankingservice.model.OutboxEventType;
+import com.example.bankingservice.model.dto.OutboxEventDto;
+import com.example.bankingservice.model.dto.OutboxStatsDto;
+import com.example.bankingservice.model.dto.TransferEntryDto;
+import com.example.bankingservice.repository.OutboxCheckpointRepository;
+import com.example.bankingservice.repository.OutboxEventRepository;
+import com.example.bankingservice.repository.UserRepository;
+import com.example.bankingservice.service.BankTransactionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class OutboxRelayTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private BankTransactionService transactionService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepo;
+    @Autowired
+    private OutboxCheckpointRepository checkpointRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test OutboxRelay.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    @Test
+    void relay() {
+        System.out.println(DELIMITER);
+        System.out.println("Test OutboxRelay.relay()");
+        Long payer = TestAccounts.newAccount(userRepo, "payer", "40817000000000000031", 1000);
+        Long receiver = TestAccounts.newAccount(userRepo, "receiver", "40817000000000000032", 100);
+        assertTrue(transactionService.transfer(payer, receiver, BigDecimal.valueOf(200)));
+        assertFalse(transactionService.transfer(receiver, payer, BigDecimal.valueOf(5000)));
+        transactionService.applyTransfers(List.of(new TransferEntryDto(receiver, payer, BigDecimal.TEN)));
+        transactionService.chargeInterest(List.of(payer));
+        transactionService.chargeInterestInDatabase(payer, payer);
+        Map<OutboxEventType, Long> types = outboxEventRepo.findAll().stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType, Collectors.counting()));
+        System.out.println("Outbox events: " + types);
+        assertEquals(Map.of(OutboxEventType.TRANSFER, 2L, OutboxEventType.INTEREST, 2L), types);
+
+        RecordingSink sink = new RecordingSink();
+        OutboxRelay relay = new OutboxRelay(outboxEventRepo, checkpointRepo, sink, transactionManager, 2, 100, 7);
+        sink.failing = true;
+        assertEquals(0, relay.relay());
+        assertEquals(4, relay.getStats().getPending());
+        assertEquals(1, relay.getStats().getFailures());
+
+        sink.failing = false;
+        assertEquals(4, relay.relay());
+        assertEquals(4, sink.delivered.size());
+        assertEquals(sink.delivered.stream().sorted(Comparator.comparing(OutboxEventDto::getId)).toList(),
+                sink.delivered);
+        OutboxStatsDto stats = relay.getStats();
+        assertEquals(0, stats.getPending());
+        assertEquals(4, stats.getDelivered());
+        assertEquals(2, stats.getLastBatchSize());
+        assertEquals(stats.getLastEventId(), stats.getDeliveredUpTo());
+        assertEquals(0, relay.relay());
+        assertEquals(0, relay.purgeDelivered());
+    }
+
+    private static final class RecordingSink implements OutboxSink {
+        private final List<OutboxEventDto> delivered = new ArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void deliver(List<OutboxEventDto> events) throws IOException {
+            if (failing) {
+                throw new IOException("Sink unavailable");
+            }
+            delivered.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankingservice.service.validation;
+
+import com.example.bankingservice.TestConfig;
+import com.example.bankingservice.model.BankAccount;
+import com.example.bankingservice.model.Email;
+import com.example.bankingservice.model.Phone;
+import com.example.bankingservice.model.User;
+import com.example.bankingservice.service.UserService;
+import com.example.bankingservice.util.DateUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = "/truncate_tables.sql", executionPhase = BEFORE_TEST_METHOD)
+class UserBatchValidatorTest {
+    private static final String DELIMITER = "----------------------------------";
+    @Autowired
+    private UserBatchValidator validator;
+    @Autowired
+    private UniquenessFilter filter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void init() throws SQLException {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserBatchValidator.beforeAll");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("create_tables.sql"));
+        }
+    }
+
+    User user(String login, String phone, String email, double balance) {
+        LocalDate dateOfBirth = LocalDate.parse("2001-02-03", DateUtil.DATE_FORMATTER);
+        User user = new User(null, null, "User " + login, login, dateOfBirth, "", now());
+        user.setAccount(new BankAccount(null, "40817" + login, BigDecimal.valueOf(balance), user));
+        user.getPhones().add(new Phone(null, user, phone));
+        user.getEmails().add(new Email(null, user, email));
+        return user;
+    }
+
+    @Test
+    void check() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UserBatchValidator.check()");
+        userService.createUser(user("stored", "79000000001", "stored@mail.com", 100));
+        List<User> batch = List.of(
+                user("fresh1", "79000000002", "fresh1@mail.com", 100),
+                user("stored", "79000000003", "fresh2@mail.com", 100),
+                user("fresh3", "79000000001", "stored@mail.com", 100),
+                user("fresh1", "79000000004", "fresh4@mail.com", 100),
+                user("fresh5", "79000000005", "fresh5@mail.com", 0));
+        List<UserBatchValidator.Violation> violations = validator.check(batch);
+        violations.forEach(System.out::println);
+        assertTrue(violations.stream().noneMatch(v -> v.index() == 0));
+        assertEquals(List.of("login"), fields(violations, 1));
+        assertEquals(List.of("phones", "emails"), fields(violations, 2));
+        assertEquals(List.of("login"), fields(violations, 3));
+        assertTrue(violations.stream().anyMatch(v -> v.index() == 3 && v.message().contains("row 1")));
+        assertEquals(List.of("account"), fields(violations, 4));
+    }
+
+    @Test
+    void filterSkipsAbsentValues() {
+        System.out.println(DELIMITER);
+        System.out.println("Test UniquenessFilter.mightContain()");
+        filter.put(UniquenessFilter.Kind.LOGIN, "present");
+        assertTrue(filter.mightContain(UniquenessFilter.Kind.LOGIN, "present"));
+        assertFalse(filter.mightContain(UniquenessFilter.Kind.PHONE, "present"));
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(user("absent" + i, "7911" + i, "absent" + i + "@mail.com", 100));
+        }
+        long absentBefore = filter.getStats().getDefinitelyAbsent();
+        assertTrue(validator.check(batch).isEmpty());
+        long skipped = filter.getStats().getDefinitelyAbsent() - absentBefore;
+        System.out.println("Values resolved without a query: " + skipped + " of 3000");
+        assertTrue(skipped > 2990);
+    }
+
+    private static List<String> fields(List<UserBatchValidator.Violation> violations, int index) {
+        return violations.stream().filter(v -> v.index() == index).map(UserBatchValidator.Violation::field).toList();
+    }
+}
@@ -8,15 +8,21 @@ CREATE TABLE IF NOT EXISTS User_
     registeredAt TIMESTAMP,
     PRIMARY KEY (id)
 );
+CREATE INDEX IF NOT EXISTS userUsername ON User_ (username, id);
+CREATE INDEX IF NOT EXISTS userDateOfBirth ON User_ (dateOfBirth, id);
 CREATE TABLE IF NOT EXISTS BankAccount
 (
     id             INT AUTO_INCREMENT,
     number         VARCHAR(100) NOT NULL,
     initialBalance NUMERIC(20, 2),
     balance        NUMERIC(20, 2),
+    version        BIGINT DEFAULT 0,
+    accruedAt      TIMESTAMP,
     userId         BIGINT       NOT NULL,
     PRIMARY KEY (id)
 );
+ALTER TABLE BankAccount ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+ALTER TABLE BankAccount ADD COLUMN IF NOT EXISTS accruedAt TIMESTAMP;
 CREATE TABLE IF NOT EXISTS BankTransaction
 (
     id                   BIGINT AUTO_INCREMENT,
@@ -28,6 +34,94 @@ CREATE TABLE IF NOT EXISTS BankTransaction
     createdAt            TIMESTAMP,
     PRIMARY KEY (id)
 );
+CREATE INDEX IF NOT EXISTS bankTransactionReference ON BankTransaction (transactionReference);
+CREATE INDEX IF NOT EXISTS bankTransactionFromAccount ON BankTransaction (fromAccountId, createdAt, id);
+CREATE INDEX IF NOT EXISTS bankTransactionToAccount ON BankTransaction (toAccountId, createdAt, id);
+CREATE TABLE IF NOT EXISTS IdempotencyKey
+(
+    id             BIGINT AUTO_INCREMENT,
+    principalName  VARCHAR(100) NOT NULL,
+    idempotencyKey VARCHAR(100) NOT NULL,
+    fromAccountId  BIGINT,
+    toAccountId    BIGINT,
+    amount         NUMERIC(20, 2),
+    status         ENUM ('PENDING', 'PROCESSING', 'SUCCESS', 'FAILED'),
+    createdAt      TIMESTAMP,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idempotencyKeyUnique ON IdempotencyKey (principalName, idempotencyKey);
+CREATE TABLE IF NOT EXISTS BalanceSlot
+(
+    id        BIGINT AUTO_INCREMENT,
+    accountId BIGINT NOT NULL,
+    slot      INT    NOT NULL,
+    balance   NUMERIC(20, 2),
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS balanceSlotUnique ON BalanceSlot (accountId, slot);
+CREATE TABLE IF NOT EXISTS BalanceSnapshot
+(
+    id           BIGINT,
+    accountId    BIGINT NOT NULL,
+    snapshotDate DATE   NOT NULL,
+    balance      NUMERIC(20, 2),
+    debitTotal   NUMERIC(20, 2),
+    creditTotal  NUMERIC(20, 2),
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS balanceSnapshotUnique ON BalanceSnapshot (accountId, snapshotDate);
+CREATE TABLE IF NOT EXISTS ReconciliationRun
+(
+    id              BIGINT  NOT NULL,
+    fullScan        BOOLEAN NOT NULL,
+    since           TIMESTAMP,
+    startedAt       TIMESTAMP,
+    finishedAt      TIMESTAMP,
+    accountsChecked BIGINT,
+    discrepancies   INT,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS reconciliationRunFinished ON ReconciliationRun (finishedAt);
+CREATE TABLE IF NOT EXISTS LedgerDiscrepancy
+(
+    id              BIGINT NOT NULL,
+    runId           BIGINT NOT NULL,
+    accountId       BIGINT NOT NULL,
+    balance         NUMERIC(20, 2),
+    expectedBalance NUMERIC(20, 2),
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS ledgerDiscrepancyRun ON LedgerDiscrepancy (runId, accountId);
+CREATE TABLE IF NOT EXISTS OutboxEvent
+(
+    id                   BIGINT NOT NULL,
+    eventType            VARCHAR(20),
+    transactionId        BIGINT,
+    transactionReference VARCHAR(100),
+    fromAccountId        BIGINT,
+    toAccountId          BIGINT,
+    amount               NUMERIC(20, 2),
+    createdAt            TIMESTAMP,
+    deliveredAt          TIMESTAMP,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS outboxEventPending ON OutboxEvent (deliveredAt, id);
+CREATE TABLE IF NOT EXISTS OutboxCheckpoint
+(
+    sink           VARCHAR(255) NOT NULL,
+    deliveredUpTo  BIGINT,
+    deliveredCount BIGINT,
+    updatedAt      TIMESTAMP,
+    PRIMARY KEY (sink)
+);
+CREATE TABLE IF NOT EXISTS LedgerCarryForward
+(
+    accountId      BIGINT NOT NULL,
+    debitTotal     NUMERIC(20, 2),
+    creditTotal    NUMERIC(20, 2),
+    archivedBefore TIMESTAMP,
+    PRIMARY KEY (accountId)
+);
 CREATE TABLE IF NOT EXISTS Email
 (
     id      BIGINT AUTO_INCREMENT,
@@ -35,10 +129,22 @@ CREATE TABLE IF NOT EXISTS Email
     userId  INT          NOT NULL,
     PRIMARY KEY (id)
 );
+CREATE UNIQUE INDEX IF NOT EXISTS emailContentUnique ON Email (content);
 CREATE TABLE IF NOT EXISTS Phone
 (
     id       BIGINT AUTO_INCREMENT,
     phoneNmr VARCHAR(100) NOT NULL,
     userId   INT          NOT NULL,
     PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+CREATE UNIQUE INDEX IF NOT EXISTS phoneNumberUnique ON Phone (phoneNmr);
+CREATE SEQUENCE IF NOT EXISTS user_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BankAccount_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BankTransaction_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS Phone_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS Email_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BalanceSnapshot_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ReconciliationRun_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS LedgerDiscrepancy_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS OutboxEvent_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BalanceSlot_seq START WITH 1001 INCREMENT BY 50;
\ No newline at end of file
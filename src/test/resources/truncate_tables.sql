@@ -2,4 +2,12 @@ TRUNCATE TABLE User_;
 TRUNCATE TABLE Email;
 TRUNCATE TABLE Phone;
 TRUNCATE TABLE BankAccount;
-TRUNCATE TABLE BankTransaction;
\ No newline at end of file
+TRUNCATE TABLE BankTransaction;
+TRUNCATE TABLE IdempotencyKey;
+TRUNCATE TABLE BalanceSlot;
+TRUNCATE TABLE BalanceSnapshot;
+TRUNCATE TABLE ReconciliationRun;
+TRUNCATE TABLE LedgerDiscrepancy;
+TRUNCATE TABLE OutboxEvent;
+TRUNCATE TABLE OutboxCheckpoint;
+TRUNCATE TABLE LedgerCarryForward;
\ No newline at end of file